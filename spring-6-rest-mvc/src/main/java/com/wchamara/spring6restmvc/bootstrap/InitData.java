@@ -2,14 +2,11 @@ package com.wchamara.spring6restmvc.bootstrap;
 
 import com.wchamara.spring6restmvc.entities.Beer;
 import com.wchamara.spring6restmvc.entities.Customer;
-import com.wchamara.spring6restmvc.model.BeerCSVRecord;
 import com.wchamara.spring6restmvc.model.BeerStyle;
 import com.wchamara.spring6restmvc.repositories.BeerRepository;
 import com.wchamara.spring6restmvc.repositories.CustomerRepository;
-import com.wchamara.spring6restmvc.service.BeerCsvService;
-import jakarta.transaction.Transactional;
+import com.wchamara.spring6restmvc.service.BeerImportService;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ResourceUtils;
@@ -19,7 +16,6 @@ import java.io.FileNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -29,9 +25,9 @@ public class InitData implements CommandLineRunner {
 
     private final BeerRepository beerRepository;
     private final CustomerRepository customerRepository;
-    private final BeerCsvService beerCsvService;
+    private final BeerImportService beerImportService;
 
-    @Transactional
+    // no surrounding transaction, the csv import commits chunk by chunk
     @Override
     public void run(String... args) throws Exception {
         loadBeerData();
@@ -42,30 +38,7 @@ public class InitData implements CommandLineRunner {
     private void loadCsvData() throws FileNotFoundException {
         if (beerRepository.count() < 10) {
             File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
-            List<BeerCSVRecord> recs = beerCsvService.convertCsv(file);
-
-            recs.forEach(beerCSVRecord -> {
-                BeerStyle beerStyle = switch (beerCSVRecord.getStyle()) {
-                    case "American Pale Lager" -> BeerStyle.LAGER;
-                    case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
-                            BeerStyle.ALE;
-                    case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
-                    case "American Porter" -> BeerStyle.PORTER;
-                    case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
-                    case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
-                    case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
-                    case "English Pale Ale" -> BeerStyle.PALE_ALE;
-                    default -> BeerStyle.PILSNER;
-                };
-
-                beerRepository.save(Beer.builder()
-                        .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
-                        .beerStyle(beerStyle)
-                        .price(BigDecimal.TEN)
-                        .upc(beerCSVRecord.getRow().toString())
-                        .quantityOnHand(beerCSVRecord.getCount())
-                        .build());
-            });
+            beerImportService.importCsv(file);
         }
     }
 
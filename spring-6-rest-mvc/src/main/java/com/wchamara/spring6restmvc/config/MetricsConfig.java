@@ -0,0 +1,14 @@
+package com.wchamara.spring6restmvc.config;
+
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return new QueryTypeRepositoryTagsProvider();
+    }
+}
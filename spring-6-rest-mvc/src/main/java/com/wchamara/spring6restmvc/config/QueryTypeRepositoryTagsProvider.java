@@ -0,0 +1,54 @@
+package com.wchamara.spring6restmvc.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Adds a {@code query.type} tag to Boot's {@code spring.data.repository.invocations} timer, so slow pages,
+ * counts, scrolls and writes can be told apart without knowing every repository method name.
+ */
+public class QueryTypeRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    private final Map<Method, Tag> queryTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        Tag queryType = queryTypes.computeIfAbsent(invocation.getMethod(),
+                method -> Tag.of("query.type", queryType(method)));
+        return Tags.of(super.repositoryTags(invocation)).and(queryType);
+    }
+
+    static String queryType(Method method) {
+        String name = method.getName();
+        Class<?> returnType = method.getReturnType();
+
+        if (name.startsWith("count")) {
+            return "count";
+        } else if (name.startsWith("exists")) {
+            return "exists";
+        } else if (name.startsWith("delete") || name.startsWith("remove")) {
+            return "delete";
+        } else if (name.startsWith("save") || name.startsWith("flush")) {
+            return "write";
+        } else if (Page.class.isAssignableFrom(returnType)) {
+            return "page";
+        } else if (Slice.class.isAssignableFrom(returnType)) {
+            return "slice";
+        } else if (Window.class.isAssignableFrom(returnType) || name.startsWith("scroll")) {
+            return "scroll";
+        } else if (Stream.class.isAssignableFrom(returnType)) {
+            return "stream";
+        }
+        return "read";
+    }
+}
@@ -0,0 +1,76 @@
+package com.wchamara.spring6restmvc.config;
+
+import com.wchamara.spring6restmvc.service.BeerService;
+import com.wchamara.spring6restmvc.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code BeerService} and {@code CustomerService} call as {@code service.invocations}, tagged
+ * with service, method, outcome and exception, so error counts come from the same timer.
+ * <p>
+ * Timers are resolved once per method and outcome and then reused, so the per-call cost is a map lookup
+ * and a clock read. Turned off with {@code beer.metrics.enabled=false}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "beer.metrics.enabled", matchIfMissing = true)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "service.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.wchamara.spring6restmvc.service.BeerService.*(..))"
+            + " || execution(* com.wchamara.spring6restmvc.service.CustomerService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        Class<?> exception = null;
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass();
+            throw e;
+        } finally {
+            timer(method, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method, Class<?> exception) {
+        return timers.computeIfAbsent(new TimerKey(method, exception), key -> Timer.builder(METRIC_NAME)
+                .description("Latency of BeerService and CustomerService calls")
+                .tag("service", serviceName(key.method()))
+                .tag("method", key.method().getName())
+                .tag("outcome", key.exception() == null ? "SUCCESS" : "ERROR")
+                .tag("exception", key.exception() == null ? "none" : key.exception().getSimpleName())
+                .register(meterRegistry));
+    }
+
+    private static String serviceName(Method method) {
+        // class-based proxies report the implementation's method, so tag with the service interface instead
+        return BeerService.class.isAssignableFrom(method.getDeclaringClass())
+                ? BeerService.class.getSimpleName()
+                : CustomerService.class.getSimpleName();
+    }
+
+    private record TimerKey(Method method, Class<?> exception) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.wchamara.spring6restmvc.model.BeerBatchItemResult;
+import com.wchamara.spring6restmvc.model.BeerBatchOperation;
+import com.wchamara.spring6restmvc.service.BeerBatchService;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Slf4j
+@RestController
+public class BeerBatchController {
+    public static final String BEER_BATCH_PATH = BeerController.BEER_PATH + "/batch";
+    public static final int MAX_OPERATIONS = 10_000;
+
+    private final BeerBatchService beerBatchService;
+
+    @PostMapping(BEER_BATCH_PATH)
+    public List<BeerBatchItemResult> executeBatch(@Size(max = MAX_OPERATIONS) @RequestBody List<BeerBatchOperation> operations) {
+        log.debug("executeBatch() called in BeerBatchController with {} operations", operations.size());
+        return beerBatchService.execute(operations);
+    }
+}
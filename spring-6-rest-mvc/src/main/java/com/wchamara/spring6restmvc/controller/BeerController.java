@@ -1,16 +1,25 @@
 package com.wchamara.spring6restmvc.controller;
 
 import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerExportFormat;
 import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.model.SlicePage;
+import com.wchamara.spring6restmvc.service.BeerExportService;
 import com.wchamara.spring6restmvc.service.BeerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -21,13 +30,25 @@ public class BeerController {
 
     public static final String BEER_PATH = "/api/v1/beer";
     public static final String BEER_PATH_ID = BEER_PATH + "/{id}";
+    public static final String BEER_EXPORT_PATH = BEER_PATH + "/export";
 
     private final BeerService beerService;
+    private final BeerExportService beerExportService;
 
     @GetMapping(BEER_PATH_ID)
-    public BeerDTO getBeerById(@PathVariable("id") UUID id) {
+    public ResponseEntity<BeerDTO> getBeerById(@PathVariable("id") UUID id, WebRequest webRequest) {
         log.debug("getBeerById() called in BeerController with id: {}", id);
-        return beerService.getBeerById(id).orElseThrow(NotFoundException::new);
+        // looked up once for both the conditional GET and the staleness check of the cached beer
+        int version = beerService.getBeerVersion(id).orElseThrow(NotFoundException::new);
+        if (VersionETag.checkNotModified(webRequest, id, version)) {
+            return null;
+        }
+
+        BeerDTO beerDTO = beerService.getBeerById(id, version).orElseThrow(NotFoundException::new);
+        return ResponseEntity.ok()
+                .eTag(VersionETag.of(id, beerDTO.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(beerDTO);
     }
 
     @GetMapping(BEER_PATH)
@@ -42,6 +63,51 @@ public class BeerController {
         return beerService.listAllBeers(beerName, showInventory, beerStyle, pageNumber, pageSize);
     }
 
+    @GetMapping(value = BEER_PATH, params = "slice=true")
+    public SlicePage<BeerDTO> listBeerSlice(
+            @RequestParam(required = false) String beerName,
+            @RequestParam(required = false) boolean showInventory,
+            @RequestParam(required = false) BeerStyle beerStyle,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) Integer pageNumber,
+            @RequestParam(required = false) boolean withTotal
+    ) {
+        log.debug("listBeerSlice() called in BeerController");
+        return beerService.listBeerSlice(beerName, showInventory, beerStyle, pageNumber, pageSize, withTotal);
+    }
+
+    @GetMapping(value = BEER_PATH, params = "cursor")
+    public CursorPage<BeerDTO> listBeersByCursor(
+            @RequestParam(required = false) String beerName,
+            @RequestParam(required = false) boolean showInventory,
+            @RequestParam(required = false) BeerStyle beerStyle,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.debug("listBeersByCursor() called in BeerController with cursor: {}", cursor);
+        KeysetCursor keysetCursor = null;
+        if (StringUtils.hasText(cursor)) {
+            try {
+                keysetCursor = KeysetCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException(e.getMessage(), e);
+            }
+        }
+        return beerService.scrollBeers(beerName, showInventory, beerStyle, keysetCursor, pageSize);
+    }
+
+    @GetMapping(BEER_EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "NDJSON") BeerExportFormat format) {
+        log.debug("exportBeers() called in BeerController with format: {}", format);
+        // written on the async executor after this method returns, so no request thread waits on the cursor
+        StreamingResponseBody body = outputStream -> beerExportService.exportBeers(format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beers." + format.getFileExtension())
+                .body(body);
+    }
+
     @PostMapping(BEER_PATH)
     public ResponseEntity saveNewBeer(@Validated @RequestBody BeerDTO beerDTO) {
         log.debug("saveNewBeer() called in BeerController with beer: {}", beerDTO);
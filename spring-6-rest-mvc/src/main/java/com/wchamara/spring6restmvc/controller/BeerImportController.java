@@ -0,0 +1,58 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.wchamara.spring6restmvc.model.BeerImportJobDTO;
+import com.wchamara.spring6restmvc.service.BeerImportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+public class BeerImportController {
+    public static final String BEER_IMPORT_PATH = BeerController.BEER_PATH + "/import";
+    public static final String BEER_IMPORT_PATH_ID = BEER_IMPORT_PATH + "/{jobId}";
+
+    private final BeerImportJobService beerImportJobService;
+
+    @PostMapping(BEER_IMPORT_PATH)
+    public ResponseEntity<BeerImportJobDTO> importBeers(@RequestParam("file") MultipartFile file) throws IOException {
+        // the multipart part is deleted when the request ends, so move it somewhere the job owns; a part the
+        // container spooled to disk is renamed into place, not copied, so the upload is only written once
+        Path csvFile = Files.createTempFile("beer-import-", ".csv");
+        BeerImportJobDTO job = null;
+        try {
+            file.transferTo(csvFile.toFile());
+            job = beerImportJobService.submit(csvFile, file.getOriginalFilename());
+        } catch (TaskRejectedException e) {
+            throw new ImportRejectedException("Too many imports in progress", e);
+        } finally {
+            // only a queued job owns the file and deletes it when it is done
+            if (job == null) {
+                Files.deleteIfExists(csvFile);
+            }
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Location", BEER_IMPORT_PATH + "/" + job.getId().toString());
+
+        return new ResponseEntity<>(job, headers, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping(BEER_IMPORT_PATH_ID)
+    public BeerImportJobDTO getImportJob(@PathVariable("jobId") UUID jobId) {
+        return beerImportJobService.getJob(jobId).orElseThrow(NotFoundException::new);
+    }
+}
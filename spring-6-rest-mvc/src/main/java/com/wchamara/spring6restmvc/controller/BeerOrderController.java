@@ -0,0 +1,47 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.service.BeerOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Slf4j
+@RestController
+public class BeerOrderController {
+    public static final String BEER_ORDER_PATH = "/api/v1/beerorder";
+    public static final String BEER_ORDER_PATH_ID = BEER_ORDER_PATH + "/{beerOrderId}";
+
+    private final BeerOrderService beerOrderService;
+
+    @PostMapping(BEER_ORDER_PATH)
+    public ResponseEntity<BeerOrderDTO> placeOrder(@Validated @RequestBody BeerOrderDTO beerOrderDTO) {
+        log.debug("placeOrder() called in BeerOrderController with {} lines", beerOrderDTO.getBeerOrderLines().size());
+        BeerOrderDTO placedOrder;
+        try {
+            placedOrder = beerOrderService.placeOrder(beerOrderDTO);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBeerOrderException(e.getMessage(), e);
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", BEER_ORDER_PATH + "/" + placedOrder.getId())
+                .body(placedOrder);
+    }
+
+    @GetMapping(BEER_ORDER_PATH_ID)
+    public BeerOrderDTO getOrderById(@PathVariable("beerOrderId") UUID beerOrderId) {
+        log.debug("getOrderById() called in BeerOrderController with id: {}", beerOrderId);
+        return beerOrderService.getOrderById(beerOrderId).orElseThrow(NotFoundException::new);
+    }
+}
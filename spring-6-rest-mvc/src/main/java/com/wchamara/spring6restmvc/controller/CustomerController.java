@@ -1,14 +1,19 @@
 package com.wchamara.spring6restmvc.controller;
 
+import com.wchamara.spring6restmvc.model.CursorPage;
 import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
 import com.wchamara.spring6restmvc.service.CustomerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -27,7 +32,9 @@ public class CustomerController {
     public ResponseEntity patchCustomerById(@PathVariable("customerId") UUID customerId,
                                             @RequestBody CustomerDTO customer) {
 
-        customerService.patchCustomerById(customerId, customer);
+        if (customerService.patchCustomerById(customerId, customer).isEmpty()) {
+            throw new NotFoundException();
+        }
 
         return new ResponseEntity(HttpStatus.NO_CONTENT);
     }
@@ -42,15 +49,17 @@ public class CustomerController {
 
     @PutMapping(CUSTOMER_PATH_ID)
     public ResponseEntity updateCustomerByID(@PathVariable("customerId") UUID customerId,
-                                             @RequestBody CustomerDTO customer) {
+                                             @Validated @RequestBody CustomerDTO customer) {
 
-        customerService.updateCustomerById(customerId, customer);
+        if (customerService.updateCustomerById(customerId, customer).isEmpty()) {
+            throw new NotFoundException();
+        }
 
         return new ResponseEntity(HttpStatus.NO_CONTENT);
     }
 
     @PostMapping(CUSTOMER_PATH)
-    public ResponseEntity handlePost(@RequestBody CustomerDTO customer) {
+    public ResponseEntity handlePost(@Validated @RequestBody CustomerDTO customer) {
         CustomerDTO savedCustomer = customerService.saveNewCustomer(customer);
 
         HttpHeaders headers = new HttpHeaders();
@@ -60,13 +69,36 @@ public class CustomerController {
     }
 
     @GetMapping(CUSTOMER_PATH)
-    public List<CustomerDTO> listAllCustomers() {
-        return customerService.getAllCustomers();
+    public Page<CustomerDTO> listCustomers(@RequestParam(required = false) Integer pageNumber,
+                                           @RequestParam(required = false) Integer pageSize) {
+        return customerService.listCustomers(pageNumber, pageSize);
+    }
+
+    @GetMapping(value = CUSTOMER_PATH, params = "cursor")
+    public CursorPage<CustomerDTO> listCustomersByCursor(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer pageSize) {
+        KeysetCursor keysetCursor = null;
+        if (StringUtils.hasText(cursor)) {
+            try {
+                keysetCursor = KeysetCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException(e.getMessage(), e);
+            }
+        }
+        return customerService.scrollCustomers(keysetCursor, pageSize);
     }
 
     @GetMapping(value = CUSTOMER_PATH_ID)
-    public CustomerDTO getCustomerById(@PathVariable("customerId") UUID id) {
-        return customerService.getCustomerById(id).orElseThrow(NotFoundException::new);
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable("customerId") UUID id, WebRequest webRequest) {
+        if (VersionETag.checkNotModified(webRequest, id, customerService::getCustomerVersion)) {
+            return null;
+        }
+
+        CustomerDTO customer = customerService.getCustomerById(id).orElseThrow(NotFoundException::new);
+        return ResponseEntity.ok()
+                .eTag(VersionETag.of(id, customer.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(customer);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.wchamara.spring6restmvc.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Import Queue Full")
+public class ImportRejectedException extends RuntimeException {
+
+    /**
+     * Constructs a new runtime exception with the specified detail message and
+     * cause.
+     *
+     * @param message the detail message.
+     * @param cause   the cause, usually the executor rejecting the import job.
+     */
+    public ImportRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.wchamara.spring6restmvc.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid Beer Order")
+public class InvalidBeerOrderException extends RuntimeException {
+
+    /**
+     * Constructs a new runtime exception with the specified detail message and
+     * cause.
+     *
+     * @param message the detail message.
+     * @param cause   the cause, usually an unknown beer or customer.
+     */
+    public InvalidBeerOrderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package com.wchamara.spring6restmvc.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Weak ETags derived from an entity's id and {@code @Version}, which changes on every write.
+ * <p>
+ * The JSON, CBOR and Smile forms of one version are equivalent but not byte-identical, so they share a weak
+ * ETag rather than claim a strong one. Both the 200 and the 304 responses send {@code Vary: Accept} to keep
+ * caches from handing one format to a client that asked for another.
+ */
+final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    static String of(UUID id, Integer version) {
+        return version == null ? null : "W/\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Answers a conditional GET with 304 using only the current version, so an unchanged resource is
+     * never loaded, mapped or serialized. Returns {@code true} if the 304 has been set on the response.
+     * The version is only looked up when the request is conditional.
+     */
+    static boolean checkNotModified(WebRequest webRequest, UUID id, Function<UUID, Optional<Integer>> versionLookup) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+
+        return versionLookup.apply(id)
+                .map(version -> checkNotModified(webRequest, id, version))
+                .orElse(false);
+    }
+
+    /**
+     * Same as {@link #checkNotModified(WebRequest, UUID, Function)} for a version the caller already has.
+     */
+    static boolean checkNotModified(WebRequest webRequest, UUID id, int version) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) == null || !webRequest.checkNotModified(of(id, version))) {
+            return false;
+        }
+
+        if (webRequest instanceof NativeWebRequest nativeWebRequest
+                && nativeWebRequest.getNativeResponse() instanceof HttpServletResponse response) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+}
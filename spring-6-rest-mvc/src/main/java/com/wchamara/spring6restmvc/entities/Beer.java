@@ -6,11 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,13 +23,21 @@ import java.util.UUID;
 @Getter
 @Setter
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_beer_name", columnList = "beer_name, id"),
+        @Index(name = "idx_beer_style_name", columnList = "beer_style, beer_name"),
+        @Index(name = "idx_beer_upc", columnList = "upc")
+})
+@NamedEntityGraph(name = Beer.WITH_CATEGORIES, attributeNodes = @NamedAttributeNode("categories"))
 public class Beer {
 
+    public static final String WITH_CATEGORIES = "Beer.categories";
+
+
     @Id
-    @GeneratedValue
-    @UuidGenerator
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
     private UUID id;
     @Version
     private Integer version;
@@ -60,6 +67,7 @@ public class Beer {
     private LocalDateTime updatedDate;
 
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(name = "beer_category", joinColumns = @JoinColumn(name = "beer_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
     private Set<Category> categories = new HashSet<>();
@@ -70,6 +78,12 @@ public class Beer {
         category.getBeers().add(this);
     }
 
+    // deleting the beer drops its beer_category rows, but only this keeps cached Category.beers from still listing it
+    @PreRemove
+    void removeFromCategories() {
+        categories.forEach(category -> category.getBeers().remove(this));
+    }
+
     public void removeCategory(Category category) {
         this.categories.remove(category);
         category.getBeers().remove(category);
@@ -3,12 +3,11 @@ package com.wchamara.spring6restmvc.entities;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Getter
@@ -17,13 +16,18 @@ import java.util.UUID;
 @NoArgsConstructor
 @Data
 @Builder
+@Table(indexes = @Index(name = "idx_beer_order_customer_created", columnList = "customer_id, created_date"))
+@NamedEntityGraph(name = BeerOrder.WITH_LINES,
+        attributeNodes = @NamedAttributeNode(value = "beerOrderLines", subgraph = "lines"),
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("beer")))
 public class BeerOrder {
 
+    public static final String WITH_LINES = "BeerOrder.beerOrderLines";
+
+
     @Id
-    @GeneratedValue
-    @UuidGenerator
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Version
@@ -43,7 +47,14 @@ public class BeerOrder {
     @OneToOne
     private BeerOrderShipment beerOrderShipment;
 
-    public BeerOrder(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String customerRef, Customer customer, BeerOrderShipment beerOrderShipment) {
+    // kept out of equals/hashCode so putting an order in a set never loads its lines
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Builder.Default
+    @OneToMany(mappedBy = "beerOrder", cascade = CascadeType.PERSIST)
+    private Set<BeerOrderLine> beerOrderLines = new HashSet<>();
+
+    public BeerOrder(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String customerRef, Customer customer, BeerOrderShipment beerOrderShipment, Set<BeerOrderLine> beerOrderLines) {
         this.id = id;
         this.version = version;
         this.createdDate = createdDate;
@@ -51,11 +62,23 @@ public class BeerOrder {
         this.customerRef = customerRef;
         this.setCustomer(customer);
         this.beerOrderShipment = beerOrderShipment;
+        // the builder hands over its own set, the lines are re-added so each one points back at this order
+        this.beerOrderLines = new HashSet<>();
+        if (beerOrderLines != null) {
+            beerOrderLines.forEach(this::addBeerOrderLine);
+        }
     }
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
-        customer.getBeerOrders().add(this);
+        if (customer != null) {
+            customer.getBeerOrders().add(this);
+        }
+    }
+
+    public void addBeerOrderLine(BeerOrderLine beerOrderLine) {
+        beerOrderLine.setBeerOrder(this);
+        beerOrderLines.add(beerOrderLine);
     }
 
     public boolean isNew() {
@@ -3,10 +3,7 @@ package com.wchamara.spring6restmvc.entities;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -20,10 +17,8 @@ import java.util.UUID;
 public class BeerOrderLine {
 
     @Id
-    @GeneratedValue
-    @UuidGenerator
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Version
@@ -40,11 +35,16 @@ public class BeerOrderLine {
 
     private Integer quantityAllocated;
 
+    /**
+     * Whether {@link #quantityAllocated} is still to be taken from the beer's stock by the inventory ledger.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean stockPending = false;
 
-}
-
-
-//    beer_id            varchar(36) DEFAULT NULL,
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Beer beer;
 
-
-//    beer_order_id      varchar(36) DEFAULT NULL,
\ No newline at end of file
+    @ManyToOne(fetch = FetchType.LAZY)
+    private BeerOrder beerOrder;
+}
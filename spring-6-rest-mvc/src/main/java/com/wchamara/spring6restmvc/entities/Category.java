@@ -4,12 +4,13 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -22,13 +23,16 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Category.WITH_BEERS, attributeNodes = @NamedAttributeNode("beers"))
 public class Category {
 
+    public static final String WITH_BEERS = "Category.beers";
+
+
     @Id
-    @GeneratedValue
-    @UuidGenerator
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Version
@@ -44,9 +48,19 @@ public class Category {
     @Column(length = 50)
     private String description;
 
+    // kept out of equals/hashCode so putting a category in a set never loads its beers
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @Builder.Default
-    @ManyToMany
-    @JoinTable(name = "beer_category", joinColumns = @JoinColumn(name = "category_id"), inverseJoinColumns = @JoinColumn(name = "beer_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @ManyToMany(mappedBy = "categories")
     private Set<Beer> beers = new HashSet<>();
 
+    // Beer.categories owns the beer_category rows, so unlink the beers there or the delete breaks the foreign key
+    @PreRemove
+    void removeFromBeers() {
+        beers.forEach(beer -> beer.getCategories().remove(this));
+        beers.clear();
+    }
+
 }
@@ -1,12 +1,13 @@
 package com.wchamara.spring6restmvc.entities;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -19,12 +20,20 @@ import java.util.UUID;
 @Getter
 @Setter
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_customer_name", columnList = "name, id"),
+        @Index(name = "idx_customer_email", columnList = "email")
+})
+@NamedEntityGraph(name = Customer.WITH_BEER_ORDERS, attributeNodes = @NamedAttributeNode("beerOrders"))
 public class Customer {
+
+    public static final String WITH_BEER_ORDERS = "Customer.beerOrders";
+
+    // random rather than @TimeOrderedUuid, a customer id is public and should not tell when the customer signed up
     @Id
     @GeneratedValue
     @UuidGenerator
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @Column(length = 255)
@@ -32,6 +41,11 @@ public class Customer {
 
     @Version
     private Integer version;
+
+    @NotNull
+    @NotBlank
+    @Size(max = 255)
+    @Column(nullable = false)
     private String name;
 
     @CreationTimestamp
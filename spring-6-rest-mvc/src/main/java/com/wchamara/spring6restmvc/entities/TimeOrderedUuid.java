@@ -0,0 +1,21 @@
+package com.wchamara.spring6restmvc.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the id as a time-ordered version 7 UUID instead of a random one, so new rows are appended at the end
+ * of the primary key index. Use in place of {@code @GeneratedValue @UuidGenerator}.
+ * <p>
+ * The id reveals when the row was created, to the millisecond. Only generated with
+ * {@value TimeOrderedUuidGenerator#TIME_ORDERED_SETTING}{@code =true}; otherwise the id is a random version 4 UUID.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,87 @@
+package com.wchamara.spring6restmvc.entities;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.time.Clock;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp, a 12-bit counter and 62 random bits.
+ * <p>
+ * Hibernate keeps one generator per entity. Its timestamp and counter are taken from a single atomic value, so
+ * the ids of an entity are strictly increasing within one JVM even when the clock steps back or more than 4096 ids are taken in one millisecond (the counter then carries into
+ * the timestamp). Across nodes the 62 random bits keep ids apart without any coordination. Both the textual
+ * form and the 16 bytes sort by creation time, so the ordering holds for varchar and binary key columns alike.
+ * The random bits come from {@link ThreadLocalRandom}, so bulk inserts on many threads never contend on one
+ * random source; the ids are not secrets, they already tell when the row was created.
+ * <p>
+ * Off unless the Hibernate setting {@value #TIME_ORDERED_SETTING} is {@code true}, as the {@code binaryuuid}
+ * profile sets it: existing deployments keep random version 4 ids, the same as {@code @UuidGenerator}.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    public static final String TIME_ORDERED_SETTING = "beer.ids.time-ordered";
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_9562 = 0x8000000000000000L;
+    private static final long RANDOM_62_BITS = 0x3FFFFFFFFFFFFFFFL;
+
+    private final boolean timeOrdered;
+    private final Clock clock;
+
+    /**
+     * Milliseconds shifted left by 12, plus the counter in the low 12 bits.
+     */
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public TimeOrderedUuidGenerator() {
+        this(true, Clock.systemUTC());
+    }
+
+    /**
+     * Called by Hibernate for every {@link TimeOrderedUuid} id.
+     */
+    public TimeOrderedUuidGenerator(TimeOrderedUuid annotation, Member member, CustomIdGeneratorCreationContext context) {
+        this(context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(TIME_ORDERED_SETTING, StandardConverters.BOOLEAN, false), Clock.systemUTC());
+    }
+
+    TimeOrderedUuidGenerator(boolean timeOrdered, Clock clock) {
+        this.timeOrdered = timeOrdered;
+        this.clock = clock;
+    }
+
+    public UUID next() {
+        if (!timeOrdered) {
+            return UUID.randomUUID();
+        }
+
+        long now = clock.millis() << 12;
+        long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificantBits = (timestampAndCounter >>> 12) << 16 | VERSION_7 | (timestampAndCounter & 0xFFFL);
+        long leastSignificantBits = VARIANT_RFC_9562 | (ThreadLocalRandom.current().nextLong() & RANDOM_62_BITS);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
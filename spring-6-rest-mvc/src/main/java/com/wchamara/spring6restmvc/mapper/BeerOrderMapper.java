@@ -0,0 +1,18 @@
+package com.wchamara.spring6restmvc.mapper;
+
+import com.wchamara.spring6restmvc.entities.BeerOrder;
+import com.wchamara.spring6restmvc.entities.BeerOrderLine;
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderLineDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface BeerOrderMapper {
+
+    @Mapping(target = "customerId", source = "customer.id")
+    BeerOrderDTO beerOrderToBeerOrderDto(BeerOrder beerOrder);
+
+    @Mapping(target = "beerId", source = "beer.id")
+    BeerOrderLineDTO beerOrderLineToBeerOrderLineDto(BeerOrderLine beerOrderLine);
+}
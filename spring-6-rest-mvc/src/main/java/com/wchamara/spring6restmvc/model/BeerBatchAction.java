@@ -0,0 +1,5 @@
+package com.wchamara.spring6restmvc.model;
+
+public enum BeerBatchAction {
+    CREATE, UPDATE, PATCH, DELETE
+}
@@ -0,0 +1,22 @@
+package com.wchamara.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerBatchItemResult {
+
+    /**
+     * Position of the operation in the request.
+     */
+    private int index;
+    private BeerBatchAction action;
+    private UUID id;
+    private Integer version;
+    private BeerBatchItemStatus status;
+    private List<String> errors;
+}
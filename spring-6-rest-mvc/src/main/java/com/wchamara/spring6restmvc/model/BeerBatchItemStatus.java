@@ -0,0 +1,5 @@
+package com.wchamara.spring6restmvc.model;
+
+public enum BeerBatchItemStatus {
+    CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT, INVALID, FAILED
+}
@@ -0,0 +1,23 @@
+package com.wchamara.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerBatchOperation {
+
+    private BeerBatchAction action;
+
+    /**
+     * Target beer for UPDATE, PATCH and DELETE, ignored for CREATE.
+     */
+    private UUID id;
+
+    /**
+     * New state for CREATE, UPDATE and PATCH. A version, if given, must match the stored one.
+     */
+    private BeerDTO beer;
+}
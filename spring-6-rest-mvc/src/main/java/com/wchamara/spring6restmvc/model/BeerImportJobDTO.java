@@ -0,0 +1,23 @@
+package com.wchamara.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerImportJobDTO {
+
+    private UUID id;
+    private String fileName;
+    private BeerImportStatus status;
+    private long rowsProcessed;
+    private long rowsRejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private String error;
+    private LocalDateTime createdDate;
+    private LocalDateTime finishedDate;
+}
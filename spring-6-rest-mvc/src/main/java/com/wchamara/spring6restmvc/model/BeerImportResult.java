@@ -0,0 +1,4 @@
+package com.wchamara.spring6restmvc.model;
+
+public record BeerImportResult(long rowsProcessed, long rowsRejected, long elapsedMillis, double rowsPerSecond) {
+}
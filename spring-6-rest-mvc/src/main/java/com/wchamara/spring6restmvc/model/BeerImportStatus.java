@@ -0,0 +1,5 @@
+package com.wchamara.spring6restmvc.model;
+
+public enum BeerImportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,9 @@
+package com.wchamara.spring6restmvc.model;
+
+import java.util.UUID;
+
+/**
+ * The columns the beer name index is built from.
+ */
+public record BeerName(UUID id, String beerName, BeerStyle beerStyle) {
+}
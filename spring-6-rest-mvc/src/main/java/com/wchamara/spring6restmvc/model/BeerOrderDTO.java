@@ -0,0 +1,34 @@
+package com.wchamara.spring6restmvc.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Data;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderDTO {
+
+    public static final int MAX_LINES = 100;
+
+    private UUID id;
+    private Long version;
+
+    @Size(max = 255)
+    private String customerRef;
+
+    private UUID customerId;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_LINES)
+    private List<BeerOrderLineDTO> beerOrderLines;
+
+    private Timestamp createdDate;
+    private Timestamp lastModifiedDate;
+}
@@ -0,0 +1,31 @@
+package com.wchamara.spring6restmvc.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class BeerOrderLineDTO {
+
+    public static final int MAX_ORDER_QUANTITY = 10_000;
+
+    private UUID id;
+
+    @NotNull
+    private UUID beerId;
+
+    @NotNull
+    @Min(1)
+    @Max(MAX_ORDER_QUANTITY)
+    private Integer orderQuantity;
+
+    /**
+     * Set by the server: either the full {@code orderQuantity} or 0 when the beer was out of stock.
+     */
+    private Integer quantityAllocated;
+}
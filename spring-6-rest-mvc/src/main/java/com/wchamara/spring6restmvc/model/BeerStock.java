@@ -0,0 +1,9 @@
+package com.wchamara.spring6restmvc.model;
+
+import java.util.UUID;
+
+/**
+ * Stored {@code quantityOnHand} of one beer, {@code null} counted as 0.
+ */
+public record BeerStock(UUID id, int quantityOnHand) {
+}
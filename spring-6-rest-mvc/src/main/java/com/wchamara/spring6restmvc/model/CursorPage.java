@@ -0,0 +1,20 @@
+package com.wchamara.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    /**
+     * Opaque token to pass back as {@code cursor} to fetch the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -1,5 +1,8 @@
 package com.wchamara.spring6restmvc.model;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,9 +13,13 @@ import java.util.UUID;
  * Created by jt, Spring Framework Guru.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class CustomerDTO {
 
+    // also the keyset sort key, a null name would have no place in the (name, id) order
+    @NotNull
+    @NotBlank
+    @Size(max = 255)
     private String name;
     private UUID id;
     private Integer version;
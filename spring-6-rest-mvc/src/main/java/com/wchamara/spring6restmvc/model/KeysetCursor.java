@@ -0,0 +1,48 @@
+package com.wchamara.spring6restmvc.model;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Position of the last row returned by a keyset (seek) listing, sorted by {@code (key, id)}.
+ * <p>
+ * Clients only ever see the opaque {@link #encode() token}; the next page is fetched with
+ * {@code WHERE (key, id) > (:key, :id)} so every page costs the same as the first one.
+ */
+public record KeysetCursor(String key, UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+
+    public KeysetCursor {
+        // a null key has no place in the (key, id) order, it would be encoded as the text "null"
+        if (key == null || id == null) {
+            throw new IllegalArgumentException("Cursor key and id are required");
+        }
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.length() < UUID_LENGTH) {
+                throw new IllegalArgumentException("Cursor is too short");
+            }
+            return new KeysetCursor(decoded.substring(UUID_LENGTH), UUID.fromString(decoded.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id.toString() + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public KeysetScrollPosition toScrollPosition(String keyProperty) {
+        return ScrollPosition.forward(Map.of(keyProperty, key, "id", id));
+    }
+}
@@ -0,0 +1,21 @@
+package com.wchamara.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SlicePage<T> {
+
+    private List<T> content;
+    private int pageNumber;
+    private int pageSize;
+    private boolean hasNext;
+
+    /**
+     * Total taken from the count cache, may lag behind recent writes. {@code null} until it has been computed.
+     */
+    private Long approximateTotalElements;
+}
@@ -0,0 +1,9 @@
+package com.wchamara.spring6restmvc.model;
+
+import java.util.UUID;
+
+/**
+ * Stock allocated by one committed order line and not yet taken from its beer's {@code quantityOnHand}.
+ */
+public record StockReservation(UUID lineId, UUID beerId, int quantity) {
+}
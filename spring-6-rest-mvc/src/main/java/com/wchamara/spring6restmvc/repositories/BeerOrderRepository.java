@@ -1,9 +1,51 @@
 package com.wchamara.spring6restmvc.repositories;
 
 import com.wchamara.spring6restmvc.entities.BeerOrder;
+import com.wchamara.spring6restmvc.model.StockReservation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, UUID> {
+
+    @Query("select o from BeerOrder o left join fetch o.beerOrderLines where o.id = :id")
+    Optional<BeerOrder> findWithLinesById(@Param("id") UUID id);
+
+    // a customer's orders with their lines and beers in a fixed number of queries, paged on order rows
+
+    @Query(value = "select o.id from BeerOrder o where o.customer.id = :customerId",
+            countQuery = "select count(o) from BeerOrder o where o.customer.id = :customerId")
+    Page<UUID> findIdsByCustomerId(@Param("customerId") UUID customerId, Pageable pageable);
+
+    @EntityGraph(BeerOrder.WITH_LINES)
+    List<BeerOrder> findWithLinesByIdIn(Collection<UUID> ids);
+
+    default Page<BeerOrder> findAllWithLinesByCustomerId(UUID customerId, Pageable pageable) {
+        return EntityPages.load(findIdsByCustomerId(customerId, pageable), this::findWithLinesByIdIn, BeerOrder::getId);
+    }
+
+    // order lines whose stock the inventory ledger has reserved but not yet written to the beer rows
+
+    @Query("select distinct l.beer.id from BeerOrderLine l where l.stockPending = true")
+    List<UUID> findBeerIdsWithPendingStock();
+
+    @Query("select new com.wchamara.spring6restmvc.model.StockReservation(l.id, l.beer.id, coalesce(l.quantityAllocated, 0))"
+            + " from BeerOrderLine l where l.stockPending = true and l.beer.id in :beerIds")
+    List<StockReservation> findPendingStockByBeerIdIn(@Param("beerIds") Collection<UUID> beerIds);
+
+    @Query("select coalesce(sum(l.quantityAllocated), 0) from BeerOrderLine l where l.stockPending = true and l.beer.id = :beerId")
+    long sumPendingStockByBeerId(@Param("beerId") UUID beerId);
+
+    @Modifying
+    @Query("update BeerOrderLine l set l.stockPending = false where l.id in :lineIds")
+    int markStockWritten(@Param("lineIds") Collection<UUID> lineIds);
 }
@@ -1,18 +1,188 @@
 package com.wchamara.spring6restmvc.repositories;
 
 import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerName;
+import com.wchamara.spring6restmvc.model.BeerStock;
 import com.wchamara.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BeerRepository extends JpaRepository<Beer, UUID> {
 
+    /**
+     * Query space of the native stock updates. No entity maps it, so those updates evict nothing from the
+     * second-level cache, where a bulk HQL update on {@code Beer} would drop the whole Beer region and the
+     * {@code beer_category} collection regions. Callers evict the beers they changed once the update commits.
+     */
+    String STOCK_QUERY_SPACE = "beer_stock";
+
+    @Query("select b.version from Beer b where b.id = :id")
+    Optional<Integer> findVersionById(@Param("id") UUID id);
+
     Page<Beer> findAllByBeerNameIsLikeIgnoreCase(String beerName, Pageable pageable);
 
     Page<Beer> findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle, Pageable pageable);
 
     Page<Beer> findAllByBeerStyle(BeerStyle beerStyle, Pageable pageable);
+
+    long countByBeerNameIsLikeIgnoreCase(String beerName);
+
+    long countByBeerNameIsLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle);
+
+    long countByBeerStyle(BeerStyle beerStyle);
+
+    // id, name and style in id order for the name index rebuild, as plain values so the whole catalogue never
+    // passes through the persistence context or the second-level cache
+
+    @Query("select new com.wchamara.spring6restmvc.model.BeerName(b.id, b.beerName, b.beerStyle) from Beer b order by b.id")
+    List<BeerName> findNames(Limit limit);
+
+    @Query("select new com.wchamara.spring6restmvc.model.BeerName(b.id, b.beerName, b.beerStyle) from Beer b"
+            + " where b.id > :after order by b.id")
+    List<BeerName> findNamesAfter(@Param("after") UUID after, Limit limit);
+
+    // DTO projections, read-only rows straight into BeerDTO without managed entities or dirty-checking snapshots
+
+    String BEER_DTO_SELECT = "select new com.wchamara.spring6restmvc.model.BeerDTO(b.id, b.version, b.beerName, b.beerStyle, b.upc, "
+            + "case when :showInventory = true then b.quantityOnHand else null end, b.price, b.createdDate, b.updatedDate) from Beer b";
+
+    String BEER_NAME_LIKE = " where upper(b.beerName) like upper(:beerName)";
+
+    @Query(value = BEER_DTO_SELECT, countQuery = "select count(b) from Beer b")
+    Page<BeerDTO> findAllBeerDtos(@Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(value = BEER_DTO_SELECT + BEER_NAME_LIKE,
+            countQuery = "select count(b) from Beer b" + BEER_NAME_LIKE)
+    Page<BeerDTO> findBeerDtosByBeerName(@Param("beerName") String beerName, @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(value = BEER_DTO_SELECT + BEER_NAME_LIKE + " and b.beerStyle = :beerStyle",
+            countQuery = "select count(b) from Beer b" + BEER_NAME_LIKE + " and b.beerStyle = :beerStyle")
+    Page<BeerDTO> findBeerDtosByBeerNameAndBeerStyle(@Param("beerName") String beerName, @Param("beerStyle") BeerStyle beerStyle,
+                                                      @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(value = BEER_DTO_SELECT + " where b.beerStyle = :beerStyle",
+            countQuery = "select count(b) from Beer b where b.beerStyle = :beerStyle")
+    Page<BeerDTO> findBeerDtosByBeerStyle(@Param("beerStyle") BeerStyle beerStyle, @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    // slice variants never issue a count query
+
+    @Query(BEER_DTO_SELECT)
+    Slice<BeerDTO> findBeerDtoSlice(@Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(BEER_DTO_SELECT + BEER_NAME_LIKE)
+    Slice<BeerDTO> findBeerDtoSliceByBeerName(@Param("beerName") String beerName, @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(BEER_DTO_SELECT + BEER_NAME_LIKE + " and b.beerStyle = :beerStyle")
+    Slice<BeerDTO> findBeerDtoSliceByBeerNameAndBeerStyle(@Param("beerName") String beerName, @Param("beerStyle") BeerStyle beerStyle,
+                                                          @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    @Query(BEER_DTO_SELECT + " where b.beerStyle = :beerStyle")
+    Slice<BeerDTO> findBeerDtoSliceByBeerStyle(@Param("beerStyle") BeerStyle beerStyle, @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    // keyset (seek) variants, the rows after (afterName, afterId) in (beerName, id) order
+
+    String AFTER_NAME_AND_ID = "(b.beerName > :afterName or (b.beerName = :afterName and b.id > :afterId))";
+
+    String NAME_AND_ID_ORDER = " order by b.beerName, b.id";
+
+    @Query(BEER_DTO_SELECT + " where " + AFTER_NAME_AND_ID + NAME_AND_ID_ORDER)
+    List<BeerDTO> scrollBeerDtos(@Param("afterName") String afterName, @Param("afterId") UUID afterId,
+                                 @Param("showInventory") boolean showInventory, Limit limit);
+
+    @Query(BEER_DTO_SELECT + BEER_NAME_LIKE + " and " + AFTER_NAME_AND_ID + NAME_AND_ID_ORDER)
+    List<BeerDTO> scrollBeerDtosByBeerName(@Param("beerName") String beerName, @Param("afterName") String afterName, @Param("afterId") UUID afterId,
+                                           @Param("showInventory") boolean showInventory, Limit limit);
+
+    @Query(BEER_DTO_SELECT + BEER_NAME_LIKE + " and b.beerStyle = :beerStyle and " + AFTER_NAME_AND_ID + NAME_AND_ID_ORDER)
+    List<BeerDTO> scrollBeerDtosByBeerNameAndBeerStyle(@Param("beerName") String beerName, @Param("beerStyle") BeerStyle beerStyle,
+                                                       @Param("afterName") String afterName, @Param("afterId") UUID afterId,
+                                                       @Param("showInventory") boolean showInventory, Limit limit);
+
+    @Query(BEER_DTO_SELECT + " where b.beerStyle = :beerStyle and " + AFTER_NAME_AND_ID + NAME_AND_ID_ORDER)
+    List<BeerDTO> scrollBeerDtosByBeerStyle(@Param("beerStyle") BeerStyle beerStyle, @Param("afterName") String afterName, @Param("afterId") UUID afterId,
+                                            @Param("showInventory") boolean showInventory, Limit limit);
+
+    /**
+     * Read straight from the row, never from the second-level cache, so the result matches {@link #findVersionById}.
+     */
+    @Query(BEER_DTO_SELECT + " where b.id = :id")
+    Optional<BeerDTO> findBeerDtoById(@Param("id") UUID id, @Param("showInventory") boolean showInventory);
+
+    @Query(BEER_DTO_SELECT + " where b.id in :ids")
+    List<BeerDTO> findBeerDtosByIdIn(@Param("ids") Collection<UUID> ids, @Param("showInventory") boolean showInventory);
+
+    /**
+     * One page of the given beers, sorted by the database. No count query, the caller knows how many ids it passed.
+     */
+    @Query(BEER_DTO_SELECT + " where b.id in :ids")
+    List<BeerDTO> findBeerDtosByIdIn(@Param("ids") Collection<UUID> ids, @Param("showInventory") boolean showInventory, Pageable pageable);
+
+    /**
+     * Whole catalog ordered by id, read through a JDBC cursor. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(BEER_DTO_SELECT + " order by b.id")
+    Stream<BeerDTO> streamBeerDtos(@Param("showInventory") boolean showInventory);
+
+    // beers with their categories in a fixed number of queries, paged on beer rows
+
+    @Query(value = "select b.id from Beer b", countQuery = "select count(b) from Beer b")
+    Page<UUID> findIdsBy(Pageable pageable);
+
+    @EntityGraph(Beer.WITH_CATEGORIES)
+    List<Beer> findWithCategoriesByIdIn(Collection<UUID> ids);
+
+    default Page<Beer> findAllWithCategories(Pageable pageable) {
+        return EntityPages.load(findIdsBy(pageable), this::findWithCategoriesByIdIn, Beer::getId);
+    }
+
+    @Query("select b.id from Beer b where b.id in :ids")
+    List<UUID> findIdsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Takes {@code quantity} off the stock of one beer in a single conditional statement and bumps its version,
+     * so concurrent allocations never read, modify and write back a stale quantity. Returns 1 if the stock
+     * covered the quantity, 0 otherwise, and 0 for a quantity below 1, which would add stock instead. Like
+     * {@link #adjustQuantityOnHand(UUID, int, LocalDateTime)} it only runs in {@link #STOCK_QUERY_SPACE}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(nativeQuery = true, value = "update beer set quantity_on_hand = quantity_on_hand - :quantity,"
+            + " version = version + 1, updated_date = :now"
+            + " where id = :id and :quantity > 0 and quantity_on_hand >= :quantity")
+    int allocate(@Param("id") UUID id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    @Query("select new com.wchamara.spring6restmvc.model.BeerStock(b.id, coalesce(b.quantityOnHand, 0)) from Beer b where b.id in :ids")
+    List<BeerStock> findStockByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Adds {@code delta} (negative to take stock) to the stored quantity and bumps the version, without
+     * loading the entity.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STOCK_QUERY_SPACE))
+    @Query(nativeQuery = true, value = "update beer set quantity_on_hand = coalesce(quantity_on_hand, 0) + :delta,"
+            + " version = version + 1, updated_date = :now where id = :id")
+    int adjustQuantityOnHand(@Param("id") UUID id, @Param("delta") int delta, @Param("now") LocalDateTime now);
 }
@@ -1,9 +1,14 @@
 package com.wchamara.spring6restmvc.repositories;
 
 import com.wchamara.spring6restmvc.entities.Category;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
+
+    @EntityGraph(Category.WITH_BEERS)
+    Optional<Category> findWithBeersById(UUID id);
 }
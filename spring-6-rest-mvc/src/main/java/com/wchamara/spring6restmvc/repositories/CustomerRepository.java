@@ -1,9 +1,38 @@
 package com.wchamara.spring6restmvc.repositories;
 
 import com.wchamara.spring6restmvc.entities.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Integer> findVersionById(@Param("id") UUID id);
+
+    Window<Customer> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    // customers with their orders in a fixed number of queries, paged on customer rows
+
+    @Query(value = "select c.id from Customer c", countQuery = "select count(c) from Customer c")
+    Page<UUID> findIdsBy(Pageable pageable);
+
+    @EntityGraph(Customer.WITH_BEER_ORDERS)
+    List<Customer> findWithBeerOrdersByIdIn(Collection<UUID> ids);
+
+    default Page<Customer> findAllWithBeerOrders(Pageable pageable) {
+        return EntityPages.load(findIdsBy(pageable), this::findWithBeerOrdersByIdIn, Customer::getId);
+    }
 }
@@ -0,0 +1,38 @@
+package com.wchamara.spring6restmvc.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pages entities whose lazy collections are fetched with an entity graph. The page is cut on a query for ids
+ * only, then the entities of that page are loaded with their collections in one more query. Limiting a
+ * collection fetch join directly would make Hibernate read every row and page in memory.
+ */
+final class EntityPages {
+
+    private EntityPages() {
+    }
+
+    static <T> Page<T> load(Page<UUID> ids, Function<Collection<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+
+        Map<UUID, T> loaded = loader.apply(ids.getContent()).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        // the graph query has no order of its own, keep the one the id page was sorted by
+        List<T> content = ids.getContent().stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+}
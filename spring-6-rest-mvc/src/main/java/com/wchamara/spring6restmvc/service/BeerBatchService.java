@@ -0,0 +1,15 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerBatchItemResult;
+import com.wchamara.spring6restmvc.model.BeerBatchOperation;
+
+import java.util.List;
+
+public interface BeerBatchService {
+
+    /**
+     * Applies the operations in order and returns one result per operation, in the same order.
+     * Invalid or failing operations are reported in their result and do not stop the others.
+     */
+    List<BeerBatchItemResult> execute(List<BeerBatchOperation> operations);
+}
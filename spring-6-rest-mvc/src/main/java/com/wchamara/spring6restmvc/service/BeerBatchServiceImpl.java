@@ -0,0 +1,267 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.mapper.BeerMapper;
+import com.wchamara.spring6restmvc.model.BeerBatchAction;
+import com.wchamara.spring6restmvc.model.BeerBatchItemResult;
+import com.wchamara.spring6restmvc.model.BeerBatchItemStatus;
+import com.wchamara.spring6restmvc.model.BeerBatchOperation;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies batches of beer writes in chunks, one transaction per chunk.
+ * <p>
+ * Every operation is validated before anything is written. Valid operations are then applied a chunk at a
+ * time: existing beers of the chunk are loaded with one query and the writes go out as JDBC batches on flush
+ * ({@code hibernate.jdbc.batch_size}). If a chunk fails as a whole, it is rolled back and replayed one
+ * operation per transaction, so a single bad row only fails its own result.
+ */
+@Slf4j
+@Service
+public class BeerBatchServiceImpl implements BeerBatchService {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final BeerNameIndex beerNameIndex;
+    private final BeerDtoCache beerDtoCache;
+    private final int chunkSize;
+
+    public BeerBatchServiceImpl(BeerRepository beerRepository,
+                                BeerMapper beerMapper,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                BeerNameIndex beerNameIndex,
+                                BeerDtoCache beerDtoCache,
+                                @Value("${beer.batch.chunk-size:500}") int chunkSize) {
+        this.beerRepository = beerRepository;
+        this.beerMapper = beerMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.beerNameIndex = beerNameIndex;
+        this.beerDtoCache = beerDtoCache;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public List<BeerBatchItemResult> execute(List<BeerBatchOperation> operations) {
+        BeerBatchItemResult[] results = new BeerBatchItemResult[operations.size()];
+        List<Item> valid = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BeerBatchOperation operation = operations.get(i);
+            List<String> errors = validate(operation);
+            if (errors.isEmpty()) {
+                valid.add(new Item(i, operation));
+            } else {
+                results[i] = result(i, operation, operation == null ? null : operation.getId(), null, BeerBatchItemStatus.INVALID, errors);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Item> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            processChunk(chunk).forEach(outcome -> results[outcome.result().getIndex()] = outcome.result());
+        }
+
+        log.debug("Applied beer batch of {} operations ({} invalid)", operations.size(), operations.size() - valid.size());
+        return Arrays.asList(results);
+    }
+
+    private List<String> validate(BeerBatchOperation operation) {
+        if (operation == null || operation.getAction() == null) {
+            return List.of("action: must not be null");
+        }
+
+        List<String> errors = new ArrayList<>();
+        if (operation.getAction() != BeerBatchAction.CREATE && operation.getId() == null) {
+            errors.add("id: must not be null");
+        }
+        if (operation.getAction() != BeerBatchAction.DELETE) {
+            if (operation.getBeer() == null) {
+                errors.add("beer: must not be null");
+            } else if (operation.getAction() != BeerBatchAction.PATCH) {
+                errors.addAll(messages(validator.validate(operation.getBeer())));
+                if (operation.getAction() == BeerBatchAction.CREATE && errors.isEmpty()) {
+                    errors.addAll(messages(validator.validate(toNewBeer(operation.getBeer()))));
+                }
+            }
+        }
+        return errors;
+    }
+
+    private List<Outcome> processChunk(List<Item> chunk) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> apply(chunk));
+        } catch (RuntimeException e) {
+            log.debug("Beer batch chunk of {} failed, retrying one by one", chunk.size(), e);
+            outcomes = new ArrayList<>(chunk.size());
+            for (Item item : chunk) {
+                try {
+                    outcomes.addAll(transactionTemplate.execute(status -> apply(List.of(item))));
+                } catch (RuntimeException itemException) {
+                    outcomes.add(new Outcome(result(item, item.operation().getId(), null, BeerBatchItemStatus.FAILED,
+                            List.of(String.valueOf(itemException.getMessage()))), null));
+                }
+            }
+        }
+
+        // only once committed, so the index and cache never show writes that were rolled back
+        outcomes.forEach(this::publish);
+        return outcomes;
+    }
+
+    private List<Outcome> apply(List<Item> items) {
+        Set<UUID> ids = items.stream()
+                .filter(item -> item.operation().getAction() != BeerBatchAction.CREATE)
+                .map(item -> item.operation().getId())
+                .collect(Collectors.toSet());
+        Map<UUID, Beer> existing = ids.isEmpty() ? Map.of() : beerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        List<Beer> written = new ArrayList<>(items.size());
+        List<BeerBatchItemStatus> statuses = new ArrayList<>(items.size());
+
+        for (Item item : items) {
+            BeerBatchOperation operation = item.operation();
+            BeerDTO beerDTO = operation.getBeer();
+
+            if (operation.getAction() == BeerBatchAction.CREATE) {
+                Beer beer = toNewBeer(beerDTO);
+                entityManager.persist(beer);
+                written.add(beer);
+                statuses.add(BeerBatchItemStatus.CREATED);
+                continue;
+            }
+
+            Beer beer = existing.get(operation.getId());
+            if (beer == null) {
+                written.add(null);
+                statuses.add(BeerBatchItemStatus.NOT_FOUND);
+            } else if (beerDTO != null && beerDTO.getVersion() != null && !beerDTO.getVersion().equals(beer.getVersion())) {
+                written.add(null);
+                statuses.add(BeerBatchItemStatus.CONFLICT);
+            } else {
+                switch (operation.getAction()) {
+                    case UPDATE -> update(beer, beerDTO);
+                    case PATCH -> patch(beer, beerDTO);
+                    case DELETE -> entityManager.remove(beer);
+                }
+                written.add(beer);
+                statuses.add(operation.getAction() == BeerBatchAction.DELETE ? BeerBatchItemStatus.DELETED : BeerBatchItemStatus.UPDATED);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Outcome> outcomes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            Beer beer = written.get(i);
+            BeerBatchItemStatus status = statuses.get(i);
+            UUID id = beer == null ? item.operation().getId() : beer.getId();
+            Integer version = beer == null || status == BeerBatchItemStatus.DELETED ? null : beer.getVersion();
+
+            outcomes.add(new Outcome(result(item, id, version, status, null), beer));
+        }
+        return outcomes;
+    }
+
+    private void publish(Outcome outcome) {
+        Beer beer = outcome.beer();
+        if (beer == null) {
+            return;
+        }
+
+        if (outcome.result().getStatus() == BeerBatchItemStatus.DELETED) {
+            beerNameIndex.remove(beer.getId());
+        } else {
+            beerNameIndex.index(beer);
+        }
+        beerDtoCache.evict(beer.getId());
+    }
+
+    private Beer toNewBeer(BeerDTO beerDTO) {
+        Beer beer = beerMapper.beerDtoToBeer(beerDTO);
+        beer.setId(null);
+        beer.setVersion(null);
+        return beer;
+    }
+
+    private static void update(Beer beer, BeerDTO beerDTO) {
+        beer.setBeerName(beerDTO.getBeerName());
+        beer.setBeerStyle(beerDTO.getBeerStyle());
+        beer.setPrice(beerDTO.getPrice());
+        beer.setQuantityOnHand(beerDTO.getQuantityOnHand());
+    }
+
+    private static void patch(Beer beer, BeerDTO beerDTO) {
+        if (StringUtils.hasText(beerDTO.getBeerName())) {
+            beer.setBeerName(beerDTO.getBeerName());
+        }
+        if (beerDTO.getBeerStyle() != null) {
+            beer.setBeerStyle(beerDTO.getBeerStyle());
+        }
+        if (StringUtils.hasText(beerDTO.getUpc())) {
+            beer.setUpc(beerDTO.getUpc());
+        }
+        if (beerDTO.getPrice() != null) {
+            beer.setPrice(beerDTO.getPrice());
+        }
+        if (beerDTO.getQuantityOnHand() != null) {
+            beer.setQuantityOnHand(beerDTO.getQuantityOnHand());
+        }
+    }
+
+    private static List<String> messages(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static BeerBatchItemResult result(Item item, UUID id, Integer version, BeerBatchItemStatus status, List<String> errors) {
+        return result(item.index(), item.operation(), id, version, status, errors);
+    }
+
+    private static BeerBatchItemResult result(int index, BeerBatchOperation operation, UUID id, Integer version,
+                                              BeerBatchItemStatus status, List<String> errors) {
+        return BeerBatchItemResult.builder()
+                .index(index)
+                .action(operation == null ? null : operation.getAction())
+                .id(id)
+                .version(version)
+                .status(status)
+                .errors(errors)
+                .build();
+    }
+
+    private record Item(int index, BeerBatchOperation operation) {
+    }
+
+    private record Outcome(BeerBatchItemResult result, Beer beer) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate total counts per (beer name filter, beer style) so slice listings can show a total
+ * without running {@code COUNT(*)} on every request.
+ * <p>
+ * Reads never block on the database: a missing or stale entry is recomputed on the task executor
+ * while the caller gets the previous value (or {@code null} the first time round). At most
+ * {@code max-entries} filters are kept; the least useful ones are evicted so new filters still get a total.
+ */
+@Slf4j
+@Component
+public class BeerCountCache {
+
+    private final boolean enabled;
+    private final AsyncLoadingCache<Key, Long> counts;
+
+    public BeerCountCache(TaskExecutor taskExecutor,
+                          @Value("${beer.count-cache.enabled:true}") boolean enabled,
+                          @Value("${beer.count-cache.ttl:60s}") Duration ttl,
+                          @Value("${beer.count-cache.max-entries:1000}") int maxEntries) {
+        this.enabled = enabled;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                // a zero ttl means refresh on every read, Caffeine wants a positive duration
+                .refreshAfterWrite(Duration.ofNanos(Math.max(ttl.toNanos(), 1)))
+                .executor(taskExecutor::execute)
+                .buildAsync(key -> key.counter().getAsLong());
+    }
+
+    public Long approximateCount(String beerName, BeerStyle beerStyle, LongSupplier counter) {
+        if (!enabled) {
+            return null;
+        }
+
+        Key key = new Key(beerName == null ? null : beerName.toLowerCase(Locale.ROOT), beerStyle, counter);
+
+        try {
+            CompletableFuture<Long> count = counts.getIfPresent(key);
+            if (count == null) {
+                counts.get(key);
+                return null;
+            }
+            return count.isDone() && !count.isCompletedExceptionally() ? count.join() : null;
+        } catch (TaskRejectedException e) {
+            log.debug("Beer count refresh for {} rejected, will retry on next read", key);
+            return null;
+        }
+    }
+
+    /**
+     * The counter travels with the key so refreshes can rerun it, it takes no part in equality.
+     */
+    private record Key(String beerName, BeerStyle beerStyle, LongSupplier counter) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(beerName, other.beerName)
+                    && beerStyle == other.beerStyle;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(beerName, beerStyle);
+        }
+
+        @Override
+        public String toString() {
+            return "Key[beerName=" + beerName + ", beerStyle=" + beerStyle + "]";
+        }
+    }
+}
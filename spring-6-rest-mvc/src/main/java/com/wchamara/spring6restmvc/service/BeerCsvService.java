@@ -3,8 +3,21 @@ package com.wchamara.spring6restmvc.service;
 import com.wchamara.spring6restmvc.model.BeerCSVRecord;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BeerCsvService {
     List<BeerCSVRecord> convertCsv(File file);
+
+    /**
+     * Lazily parses one record at a time, so memory does not grow with the file size.
+     * The stream owns the underlying reader and must be closed, e.g. with try-with-resources.
+     */
+    Stream<BeerCSVRecord> streamCsv(File file);
+
+    /**
+     * Same as {@link #streamCsv(File)}; closing the returned stream closes {@code inputStream}.
+     */
+    Stream<BeerCSVRecord> streamCsv(InputStream inputStream);
 }
@@ -4,10 +4,23 @@ import com.opencsv.bean.CsvToBeanBuilder;
 import com.wchamara.spring6restmvc.model.BeerCSVRecord;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class BeerCsvServiceImpl implements BeerCsvService {
@@ -23,4 +36,40 @@ public class BeerCsvServiceImpl implements BeerCsvService {
         }
 
     }
+
+    @Override
+    public Stream<BeerCSVRecord> streamCsv(File file) {
+        try {
+            return streamCsv(new FileInputStream(file));
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<BeerCSVRecord> streamCsv(InputStream inputStream) {
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        try {
+            // iterator() reads a single line per next(), unlike parse() which materialises the whole file
+            Iterator<BeerCSVRecord> iterator = new CsvToBeanBuilder<BeerCSVRecord>(reader)
+                    .withType(BeerCSVRecord.class)
+                    .build()
+                    .iterator();
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> close(reader));
+        } catch (RuntimeException e) {
+            close(reader);
+            throw e;
+        }
+    }
+
+    private static void close(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of mapped {@link BeerDTO}s keyed by beer id.
+ * <p>
+ * Every entry carries the {@code @Version} it was mapped from. Writes made here evict their beer, and readers
+ * pass the current version to {@link #evictIfStale(UUID, Integer)} so writes made elsewhere (another instance,
+ * SQL, bulk stock updates) drop the entry too. Callers always get their own copy, so mutating a returned DTO
+ * cannot corrupt the cache.
+ * Hit, miss and eviction counts are published as {@code cache.*} meters with {@code cache=beerDto}.
+ * <p>
+ * Loads run on the calling thread outside of any map lock: only an incomplete future is inserted under the
+ * lock, so a JDBC call never holds a monitor and cannot pin a virtual thread. Concurrent readers of the
+ * same id wait on that future instead of loading twice.
+ */
+@Component
+public class BeerDtoCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "beerDto";
+
+    private final boolean enabled;
+    private final AsyncCache<UUID, BeerDTO> asyncCache;
+    private final Cache<UUID, BeerDTO> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    public BeerDtoCache(@Value("${beer.dto-cache.enabled:true}") boolean enabled,
+                        @Value("${beer.dto-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${beer.dto-cache.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.cache = asyncCache.synchronous();
+    }
+
+    public Optional<BeerDTO> get(UUID id, Function<UUID, Optional<BeerDTO>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        CompletableFuture<BeerDTO> loading = new CompletableFuture<>();
+        CompletableFuture<BeerDTO> future = asyncCache.get(id, (key, executor) -> loading);
+
+        if (future == loading) {
+            // a write evicting this id removes the future, so a stale load completes it without being cached
+            try {
+                loading.complete(loader.apply(id).orElse(null));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return Optional.ofNullable(future.join()).map(BeerDtoCache::copy);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void evict(UUID id) {
+        if (cache.asMap().remove(id) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public void evictIfStale(UUID id, Integer currentVersion) {
+        BeerDTO cached = cache.getIfPresent(id);
+        if (cached != null && currentVersion != null && !currentVersion.equals(cached.getVersion())
+                && cache.asMap().remove(id, cached)) {
+            invalidations.increment();
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, asyncCache, CACHE_NAME);
+        FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Entries removed because the beer was written")
+                .register(registry);
+    }
+
+    private static BeerDTO copy(BeerDTO beerDTO) {
+        return beerDTO.toBuilder().build();
+    }
+}
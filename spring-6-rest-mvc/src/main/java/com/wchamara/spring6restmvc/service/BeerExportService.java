@@ -0,0 +1,14 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BeerExportService {
+
+    /**
+     * Writes every beer to {@code outputStream} one row at a time; {@code outputStream} is flushed but not closed.
+     */
+    void exportBeers(BeerExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerExportFormat;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the catalog from a JDBC cursor straight to the caller's output stream. Rows are DTO projections,
+ * so nothing accumulates in the persistence context and memory stays flat regardless of catalog size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerExportServiceImpl implements BeerExportService {
+
+    static final String[] CSV_HEADER = {"id", "version", "beerName", "beerStyle", "upc", "quantityOnHand", "price",
+            "createdDate", "updatedDate"};
+
+    private final BeerRepository beerRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBeers(BeerExportFormat format, OutputStream outputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows;
+
+        try (Stream<BeerDTO> beers = beerRepository.streamBeerDtos(true)) {
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(beers.iterator(), outputStream);
+                case CSV -> writeCsv(beers.iterator(), outputStream);
+            };
+        }
+
+        log.debug("Exported {} beers as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    private long writeNdjson(Iterator<BeerDTO> beers, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (beers.hasNext()) {
+                generator.writeObject(beers.next());
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<BeerDTO> beers, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        // not closed, that would close the response stream
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+        csvWriter.writeNext(CSV_HEADER, false);
+        while (beers.hasNext()) {
+            BeerDTO beer = beers.next();
+            csvWriter.writeNext(new String[]{
+                    toString(beer.getId()),
+                    toString(beer.getVersion()),
+                    beer.getBeerName(),
+                    toString(beer.getBeerStyle()),
+                    beer.getUpc(),
+                    toString(beer.getQuantityOnHand()),
+                    beer.getPrice() == null ? "" : beer.getPrice().toPlainString(),
+                    toString(beer.getCreatedDate()),
+                    toString(beer.getUpdatedDate())
+            });
+            rows++;
+        }
+        csvWriter.flush();
+        if (csvWriter.checkError()) {
+            throw new IOException("Failed writing beer csv export");
+        }
+        return rows;
+    }
+
+    private static String toString(Object value) {
+        return Objects.toString(value, "");
+    }
+}
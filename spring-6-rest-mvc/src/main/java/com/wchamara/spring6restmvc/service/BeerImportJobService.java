@@ -0,0 +1,20 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerImportJobDTO;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerImportJobService {
+
+    /**
+     * Queues an import of {@code csvFile} and returns straight away. The job takes ownership of the
+     * file and deletes it once the import has finished.
+     *
+     * @throws org.springframework.core.task.TaskRejectedException if the import queue is full
+     */
+    BeerImportJobDTO submit(Path csvFile, String fileName);
+
+    Optional<BeerImportJobDTO> getJob(UUID jobId);
+}
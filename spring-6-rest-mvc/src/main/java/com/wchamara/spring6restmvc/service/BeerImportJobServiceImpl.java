@@ -0,0 +1,155 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.model.BeerImportJobDTO;
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+import com.wchamara.spring6restmvc.model.BeerImportStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Runs uploaded CSV imports on a small dedicated pool, away from the request threads.
+ * <p>
+ * The pool is deliberately not a Spring bean (that would replace Boot's {@code applicationTaskExecutor}) and
+ * defaults to a single thread: every import holds one Hikari connection per chunk, so a handful of
+ * concurrent imports would otherwise starve regular requests of the 5-connection pool. Jobs beyond the
+ * queue capacity are rejected instead of piling up on disk.
+ */
+@Slf4j
+@Service
+public class BeerImportJobServiceImpl implements BeerImportJobService {
+
+    private final BeerImportService beerImportService;
+    private final BeerCsvService beerCsvService;
+    private final Duration retention;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public BeerImportJobServiceImpl(BeerImportService beerImportService,
+                                    BeerCsvService beerCsvService,
+                                    @Value("${beer.import.concurrency:1}") int concurrency,
+                                    @Value("${beer.import.queue-capacity:10}") int queueCapacity,
+                                    @Value("${beer.import.job-retention:1h}") Duration retention) {
+        this.beerImportService = beerImportService;
+        this.beerCsvService = beerCsvService;
+        this.retention = retention;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("beer-import-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public BeerImportJobDTO submit(Path csvFile, String fileName) {
+        purgeFinishedJobs();
+
+        Job job = new Job(UUID.randomUUID(), fileName, LocalDateTime.now());
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job, csvFile));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            delete(csvFile);
+            throw e;
+        }
+
+        return job.toDto();
+    }
+
+    @Override
+    public Optional<BeerImportJobDTO> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    private void run(Job job, Path csvFile) {
+        job.status = BeerImportStatus.RUNNING;
+
+        try (InputStream inputStream = Files.newInputStream(csvFile);
+             Stream<BeerCSVRecord> records = beerCsvService.streamCsv(inputStream)) {
+            beerImportService.importRecords(records, job.progress);
+            job.status = BeerImportStatus.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            log.error("Beer import {} of {} failed", job.id, job.fileName, e);
+            job.error = e.getMessage();
+            job.status = BeerImportStatus.FAILED;
+        } finally {
+            job.progress.finish();
+            job.finishedDate = LocalDateTime.now();
+            delete(csvFile);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedDate != null && job.finishedDate.isBefore(cutoff));
+    }
+
+    private static void delete(Path csvFile) {
+        try {
+            Files.deleteIfExists(csvFile);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", csvFile, e);
+        }
+    }
+
+    private static final class Job {
+
+        private final UUID id;
+        private final String fileName;
+        private final LocalDateTime createdDate;
+        private final BeerImportProgress progress = new BeerImportProgress();
+
+        private volatile BeerImportStatus status = BeerImportStatus.QUEUED;
+        private volatile String error;
+        private volatile LocalDateTime finishedDate;
+
+        private Job(UUID id, String fileName, LocalDateTime createdDate) {
+            this.id = id;
+            this.fileName = fileName;
+            this.createdDate = createdDate;
+        }
+
+        private BeerImportJobDTO toDto() {
+            BeerImportResult result = progress.snapshot();
+
+            return BeerImportJobDTO.builder()
+                    .id(id)
+                    .fileName(fileName)
+                    .status(status)
+                    .rowsProcessed(result.rowsProcessed())
+                    .rowsRejected(result.rowsRejected())
+                    .elapsedMillis(result.elapsedMillis())
+                    .rowsPerSecond(result.rowsPerSecond())
+                    .error(error)
+                    .createdDate(createdDate)
+                    .finishedDate(finishedDate)
+                    .build();
+        }
+    }
+}
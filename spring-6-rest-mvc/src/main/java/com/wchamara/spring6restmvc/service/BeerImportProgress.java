@@ -0,0 +1,41 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a running import, safe to read from other threads while the import is writing them.
+ */
+public class BeerImportProgress {
+
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public void start() {
+        startedAt = System.nanoTime();
+    }
+
+    public void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public void processed(long rows) {
+        rowsProcessed.addAndGet(rows);
+    }
+
+    public void rejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public BeerImportResult snapshot() {
+        long processed = rowsProcessed.get();
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        long elapsedNanos = startedAt == 0 ? 0 : end - startedAt;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : processed * 1_000_000_000d / elapsedNanos;
+
+        return new BeerImportResult(processed, rowsRejected.get(), elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
@@ -0,0 +1,14 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+
+import java.io.File;
+import java.util.stream.Stream;
+
+public interface BeerImportService {
+
+    BeerImportResult importCsv(File file);
+
+    BeerImportResult importRecords(Stream<BeerCSVRecord> records, BeerImportProgress progress);
+}
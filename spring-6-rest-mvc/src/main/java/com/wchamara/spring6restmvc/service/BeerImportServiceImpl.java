@@ -0,0 +1,132 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Imports beers in fixed-size chunks, one transaction per chunk.
+ * <p>
+ * Each chunk is persisted, flushed as JDBC batches ({@code hibernate.jdbc.batch_size}) and then cleared
+ * from the persistence context, so memory stays flat no matter how many rows are imported.
+ */
+@Slf4j
+@Service
+public class BeerImportServiceImpl implements BeerImportService {
+
+    private final BeerCsvService beerCsvService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final BeerNameIndex beerNameIndex;
+    private final int chunkSize;
+
+    public BeerImportServiceImpl(BeerCsvService beerCsvService,
+                                 EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate,
+                                 Validator validator,
+                                 BeerNameIndex beerNameIndex,
+                                 @Value("${beer.import.chunk-size:1000}") int chunkSize) {
+        this.beerCsvService = beerCsvService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.beerNameIndex = beerNameIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    public static BeerStyle toBeerStyle(String style) {
+        if (style == null) {
+            return BeerStyle.PILSNER;
+        }
+        return switch (style) {
+            case "American Pale Lager" -> BeerStyle.LAGER;
+            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
+                    BeerStyle.ALE;
+            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
+            case "American Porter" -> BeerStyle.PORTER;
+            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
+            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
+            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
+            case "English Pale Ale" -> BeerStyle.PALE_ALE;
+            default -> BeerStyle.PILSNER;
+        };
+    }
+
+    @Override
+    public BeerImportResult importCsv(File file) {
+        try (Stream<BeerCSVRecord> records = beerCsvService.streamCsv(file)) {
+            return importRecords(records, new BeerImportProgress());
+        }
+    }
+
+    @Override
+    public BeerImportResult importRecords(Stream<BeerCSVRecord> records, BeerImportProgress progress) {
+        progress.start();
+
+        List<Beer> chunk = new ArrayList<>(chunkSize);
+        Iterator<BeerCSVRecord> iterator = records.iterator();
+        while (iterator.hasNext()) {
+            Beer beer = toBeer(iterator.next());
+
+            if (!validator.validate(beer).isEmpty()) {
+                progress.rejected();
+                continue;
+            }
+
+            chunk.add(beer);
+            if (chunk.size() == chunkSize) {
+                persistChunk(chunk, progress);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        persistChunk(chunk, progress);
+
+        progress.finish();
+        BeerImportResult result = progress.snapshot();
+        log.info("Imported {} beers ({} rejected) in {} ms, {} rows/s", result.rowsProcessed(), result.rowsRejected(),
+                result.elapsedMillis(), Math.round(result.rowsPerSecond()));
+
+        return result;
+    }
+
+    private void persistChunk(List<Beer> chunk, BeerImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+
+        chunk.forEach(beerNameIndex::index);
+        progress.processed(chunk.size());
+    }
+
+    private Beer toBeer(BeerCSVRecord beerCSVRecord) {
+        return Beer.builder()
+                .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
+                .beerStyle(toBeerStyle(beerCSVRecord.getStyle()))
+                .price(BigDecimal.TEN)
+                .upc(beerCSVRecord.getRow() == null ? null : beerCSVRecord.getRow().toString())
+                .quantityOnHand(beerCSVRecord.getCount())
+                .build();
+    }
+}
@@ -0,0 +1,281 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.model.BeerName;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process trigram inverted index over {@link Beer#getBeerName()}.
+ * <p>
+ * A {@code LIKE '%term%'} search cannot use a B-tree index, so substring searches are matched here
+ * instead: the term is split into trigrams, their posting lists are intersected starting with the
+ * shortest, and the survivors are checked against the stored name. The index only finds the matching
+ * ids; ordering and paging them is left to the database so both paths sort by the same collation.
+ * Terms shorter than three characters, terms containing LIKE wildcards, terms matching more than
+ * {@code beer.name-index.max-matches} beers and searches made before the index is built return
+ * {@link Optional#empty()} and should fall back to the database.
+ * <p>
+ * Writes made through this application update the index straight away. Every
+ * {@code beer.name-index.refresh-interval} the index is rebuilt from the database in the background and
+ * swapped in whole, so writes made by other instances or directly in SQL show up within one interval.
+ * Like the inventory flush, the refresh scheduler is not a bean.
+ */
+@Slf4j
+@Component
+public class BeerNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final BeerRepository beerRepository;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final int maxMatches;
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    // not a monitor, a rebuild runs JDBC and must not pin a virtual thread
+    private final Lock rebuilding = new ReentrantLock();
+
+    private volatile Trigrams current = new Trigrams();
+    // writes made while a rebuild runs go to both, so the swap does not lose them
+    private volatile Trigrams building;
+    private volatile boolean ready;
+
+    public BeerNameIndex(BeerRepository beerRepository,
+                         @Value("${beer.name-index.enabled:true}") boolean enabled,
+                         @Value("${beer.name-index.refresh-interval:5m}") Duration refreshInterval,
+                         @Value("${beer.name-index.max-matches:1000}") int maxMatches) {
+        this.beerRepository = beerRepository;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+        this.maxMatches = maxMatches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        rebuild();
+        scheduler.setThreadNamePrefix("beer-name-index-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, Instant.now().plus(refreshInterval), refreshInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Reads every beer name from the database into a new index and swaps it in. Searches keep using the
+     * previous index until then, and only one rebuild runs at a time.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        rebuilding.lock();
+        try {
+            long start = System.currentTimeMillis();
+            Trigrams rebuilt = new Trigrams();
+            building = rebuilt;
+            try {
+                Limit limit = Limit.of(REBUILD_BATCH_SIZE);
+                List<BeerName> names = beerRepository.findNames(limit);
+                while (true) {
+                    names.forEach(name -> index(rebuilt, name));
+                    if (names.size() < REBUILD_BATCH_SIZE) {
+                        break;
+                    }
+                    names = beerRepository.findNamesAfter(names.get(names.size() - 1).id(), limit);
+                }
+                current = rebuilt;
+                ready = true;
+            } finally {
+                building = null;
+            }
+
+            log.info("Beer name index built with {} beers and {} trigrams in {} ms",
+                    rebuilt.beers.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    public void index(Beer beer) {
+        index(beer.getId(), beer.getBeerName(), beer.getBeerStyle());
+    }
+
+    public void index(UUID id, String beerName, BeerStyle beerStyle) {
+        if (!enabled || id == null || beerName == null) {
+            return;
+        }
+
+        IndexedBeer indexedBeer = indexed(id, beerName, beerStyle);
+        current.index(indexedBeer);
+        Trigrams next = building;
+        if (next != null) {
+            next.index(indexedBeer);
+        }
+    }
+
+    public void remove(UUID id) {
+        current.remove(id);
+        Trigrams next = building;
+        if (next != null) {
+            next.remove(id);
+        }
+    }
+
+    /**
+     * Ids of all beers whose name contains {@code term} (ignoring case), optionally restricted to a style,
+     * in no particular order.
+     */
+    public Optional<Set<UUID>> search(String term, BeerStyle beerStyle) {
+        if (!ready || term == null || term.length() < GRAM || term.contains("%") || term.contains("_")) {
+            return Optional.empty();
+        }
+
+        Trigrams trigrams = current;
+        String normalizedTerm = normalize(term);
+        List<Set<UUID>> lists = new ArrayList<>();
+        for (String trigram : trigrams(normalizedTerm)) {
+            Set<UUID> posting = trigrams.postings.get(trigram);
+            if (posting == null) {
+                return Optional.of(Set.of());
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> matches = new HashSet<>();
+        for (UUID id : lists.get(0)) {
+            if (!containsAll(lists, id)) {
+                continue;
+            }
+            IndexedBeer indexedBeer = trigrams.beers.get(id);
+            // trigrams only narrow the candidates, the substring check is what decides
+            if (indexedBeer != null && indexedBeer.normalizedName().contains(normalizedTerm)
+                    && (beerStyle == null || beerStyle == indexedBeer.beerStyle())) {
+                matches.add(id);
+                if (matches.size() > maxMatches) {
+                    // too many ids to hand to an IN list, the database scan is no worse
+                    return Optional.empty();
+                }
+            }
+        }
+
+        return Optional.of(matches);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Beer name index refresh failed, keeping the previous index", e);
+        }
+    }
+
+    private static boolean containsAll(List<Set<UUID>> lists, UUID id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void index(Trigrams trigrams, BeerName name) {
+        if (name.beerName() != null) {
+            trigrams.index(indexed(name.id(), name.beerName(), name.beerStyle()));
+        }
+    }
+
+    private static IndexedBeer indexed(UUID id, String beerName, BeerStyle beerStyle) {
+        return new IndexedBeer(id, normalize(beerName), beerStyle);
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    private record IndexedBeer(UUID id, String normalizedName, BeerStyle beerStyle) {
+    }
+
+    /**
+     * One generation of the index: the indexed beers and the posting list of each trigram.
+     */
+    private static final class Trigrams {
+
+        final Map<UUID, IndexedBeer> beers = new ConcurrentHashMap<>();
+        final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+        void index(IndexedBeer indexedBeer) {
+            UUID id = indexedBeer.id();
+            IndexedBeer previous = beers.put(id, indexedBeer);
+
+            if (previous != null && !previous.normalizedName().equals(indexedBeer.normalizedName())) {
+                Set<String> stale = trigrams(previous.normalizedName());
+                stale.removeAll(trigrams(indexedBeer.normalizedName()));
+                stale.forEach(trigram -> removePosting(trigram, id));
+            }
+
+            for (String trigram : trigrams(indexedBeer.normalizedName())) {
+                postings.compute(trigram, (key, ids) -> {
+                    Set<UUID> posting = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    posting.add(id);
+                    return posting;
+                });
+            }
+        }
+
+        void remove(UUID id) {
+            IndexedBeer previous = beers.remove(id);
+            if (previous != null) {
+                trigrams(previous.normalizedName()).forEach(trigram -> removePosting(trigram, id));
+            }
+        }
+
+        private void removePosting(String trigram, UUID id) {
+            postings.computeIfPresent(trigram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
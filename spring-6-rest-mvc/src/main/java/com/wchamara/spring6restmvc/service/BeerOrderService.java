@@ -0,0 +1,19 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerOrderService {
+
+    Optional<BeerOrderDTO> getOrderById(UUID id);
+
+    /**
+     * Creates the order with its lines and allocates every line against the beer's stock. A line is either
+     * allocated in full or not at all.
+     *
+     * @throws IllegalArgumentException if a line refers to an unknown beer or the customer does not exist.
+     */
+    BeerOrderDTO placeOrder(BeerOrderDTO beerOrderDTO);
+}
@@ -0,0 +1,149 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.entities.BeerOrder;
+import com.wchamara.spring6restmvc.entities.BeerOrderLine;
+import com.wchamara.spring6restmvc.entities.Customer;
+import com.wchamara.spring6restmvc.mapper.BeerOrderMapper;
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderLineDTO;
+import com.wchamara.spring6restmvc.repositories.BeerOrderRepository;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import com.wchamara.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Places orders and allocates their lines against {@code Beer.quantityOnHand}.
+ * <p>
+ * Stock is taken with one conditional {@code update ... where quantityOnHand >= :quantity} per beer instead of
+ * loading and saving the entity, so concurrent orders on the same beer cannot overwrite each other and never
+ * fail on a stale {@code @Version}. Lines for the same beer are allocated together and beers are updated in id
+ * order, so two orders always lock the same rows in the same order and cannot deadlock. The row locks are only
+ * held for the batched order inserts and the commit that follow the updates.
+ * <p>
+ * With {@code beer.inventory.ledger.enabled=true} stock is reserved in the {@link InventoryLedger} instead and
+ * the allocated lines are saved with {@code stockPending} set. The ledger's periodic flush takes their stock from
+ * the beer rows, so orders on hot beers do not touch the beer row at all.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerOrderServiceImpl implements BeerOrderService {
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerRepository beerRepository;
+    private final CustomerRepository customerRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerDtoCache beerDtoCache;
+    private final InventoryLedger inventoryLedger;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BeerOrderDTO> getOrderById(UUID id) {
+        return beerOrderRepository.findWithLinesById(id).map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+
+    @Override
+    public BeerOrderDTO placeOrder(BeerOrderDTO beerOrderDTO) {
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        beerOrderDTO.getBeerOrderLines().forEach(line -> {
+            if (line.getOrderQuantity() == null || line.getOrderQuantity() < 1) {
+                throw new IllegalArgumentException("Order quantity must be positive");
+            }
+            try {
+                // exact, a wrapped negative total would put stock back instead of taking it
+                quantities.merge(line.getBeerId(), line.getOrderQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Order quantity too large for beer " + line.getBeerId(), e);
+            }
+        });
+
+        Set<UUID> allocated = new HashSet<>();
+        PlacedOrder placedOrder;
+        try {
+            placedOrder = transactionTemplate.execute(status -> {
+                if (beerRepository.findIdsByIdIn(quantities.keySet()).size() != quantities.size()) {
+                    throw new IllegalArgumentException("Order refers to unknown beers");
+                }
+                Customer customer = beerOrderDTO.getCustomerId() == null ? null
+                        : customerRepository.findById(beerOrderDTO.getCustomerId())
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown customer " + beerOrderDTO.getCustomerId()));
+
+                allocate(quantities, allocated);
+
+                BeerOrder beerOrder = BeerOrder.builder()
+                        .customerRef(beerOrderDTO.getCustomerRef())
+                        .customer(customer)
+                        .build();
+                List<BeerOrderLine> lines = beerOrderDTO.getBeerOrderLines().stream()
+                        .map(line -> toBeerOrderLine(line, allocated.contains(line.getBeerId())))
+                        .toList();
+                lines.forEach(beerOrder::addBeerOrderLine);
+
+                return new PlacedOrder(beerOrderRepository.save(beerOrder), lines);
+            });
+        } catch (RuntimeException e) {
+            // the order was rolled back, so give back what the ledger reserved for it
+            if (inventoryLedger.isEnabled()) {
+                allocated.forEach(beerId -> inventoryLedger.release(beerId, quantities.get(beerId)));
+            }
+            throw e;
+        }
+
+        if (!inventoryLedger.isEnabled()) {
+            // the stock update bypassed the entity, so cached copies of the allocated beers are stale
+            Cache secondLevelCache = entityManager.getEntityManagerFactory().getCache();
+            allocated.forEach(beerId -> {
+                secondLevelCache.evict(Beer.class, beerId);
+                beerDtoCache.evict(beerId);
+            });
+        }
+        log.debug("Placed beer order {} allocating {} of {} beers", placedOrder.beerOrder().getId(), allocated.size(), quantities.size());
+
+        BeerOrderDTO placed = beerOrderMapper.beerOrderToBeerOrderDto(placedOrder.beerOrder());
+        placed.setBeerOrderLines(placedOrder.lines().stream().map(beerOrderMapper::beerOrderLineToBeerOrderLineDto).toList());
+        return placed;
+    }
+
+    private void allocate(Map<UUID, Integer> quantities, Set<UUID> allocated) {
+        LocalDateTime now = LocalDateTime.now();
+        quantities.forEach((beerId, quantity) -> {
+            boolean reserved = inventoryLedger.isEnabled()
+                    ? inventoryLedger.reserve(beerId, quantity)
+                    : beerRepository.allocate(beerId, quantity, now) == 1;
+            if (reserved) {
+                allocated.add(beerId);
+            }
+        });
+    }
+
+    private BeerOrderLine toBeerOrderLine(BeerOrderLineDTO line, boolean allocated) {
+        return BeerOrderLine.builder()
+                .beer(entityManager.getReference(Beer.class, line.getBeerId()))
+                .orderQuantity(line.getOrderQuantity())
+                .quantityAllocated(allocated ? line.getOrderQuantity() : 0)
+                // committed with the order, so the ledger's reservation outlives a crash before its next flush
+                .stockPending(allocated && inventoryLedger.isEnabled())
+                .build();
+    }
+
+    private record PlacedOrder(BeerOrder beerOrder, List<BeerOrderLine> lines) {
+    }
+}
@@ -2,6 +2,9 @@ package com.wchamara.spring6restmvc.service;
 
 import com.wchamara.spring6restmvc.model.BeerDTO;
 import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.model.SlicePage;
 import org.springframework.data.domain.Page;
 
 import java.util.Optional;
@@ -10,8 +13,23 @@ import java.util.UUID;
 public interface BeerService {
     Optional<BeerDTO> getBeerById(UUID id);
 
+    /**
+     * Same as {@link #getBeerById(UUID)} for a caller that has just looked up the beer's {@code @Version} with
+     * {@link #getBeerVersion(UUID)}, so it is not looked up again.
+     */
+    Optional<BeerDTO> getBeerById(UUID id, int currentVersion);
+
+    /**
+     * Current {@code @Version} of the beer, looked up without loading or mapping the entity.
+     */
+    Optional<Integer> getBeerVersion(UUID id);
+
     Page<BeerDTO> listAllBeers(String beerName, Boolean showInventory, BeerStyle beerStyle, Integer pageNumber, Integer pageSize);
 
+    SlicePage<BeerDTO> listBeerSlice(String beerName, Boolean showInventory, BeerStyle beerStyle, Integer pageNumber, Integer pageSize, boolean withTotal);
+
+    CursorPage<BeerDTO> scrollBeers(String beerName, Boolean showInventory, BeerStyle beerStyle, KeysetCursor cursor, Integer pageSize);
+
     BeerDTO saveNewBeer(BeerDTO beerDTO);
 
     Optional<BeerDTO> updateBeer(UUID id, BeerDTO beerDTO);
@@ -2,20 +2,63 @@ package com.wchamara.spring6restmvc.service;
 
 import com.wchamara.spring6restmvc.model.BeerDTO;
 import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.model.SlicePage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+/**
+ * In-memory {@link BeerService} that is safe to share between request threads.
+ * <p>
+ * Beers live in a {@link ConcurrentHashMap}; every write replaces the stored DTO with a new one inside
+ * {@code compute}, which only locks the bin of that id, so writes to different beers do not contend.
+ * Two lock-free skip lists keep the beers sorted by {@code (beerName, id)}: one over all beers and one per
+ * {@link BeerStyle}. Listings walk the narrowest of them in order and stop as soon as the page is full,
+ * and a keyset cursor seeks straight to its position with {@code tailSet}.
+ * <p>
+ * A reader walking an index while a beer is renamed can briefly meet an entry for the old name, so every
+ * entry is checked against the stored beer before it is returned.
+ * Callers get their own copies and can never mutate the store.
+ */
 @Service
 public class BeerServiceImpl implements BeerService {
 
-    private Map<UUID, BeerDTO> beerMap = new HashMap<>();
+    private final static int DEFAULT_PAGE_SIZE = 25;
+    private final static int MAX_PAGE_SIZE = 100;
+
+    private final static Comparator<NameKey> NAME_ORDER = Comparator
+            .comparing(NameKey::beerName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(NameKey::id);
+
+    private final Map<UUID, BeerDTO> beerMap = new ConcurrentHashMap<>();
+    private final NavigableSet<NameKey> byName = new ConcurrentSkipListSet<>(NAME_ORDER);
+    private final Map<BeerStyle, NavigableSet<NameKey>> byStyle = new EnumMap<>(BeerStyle.class);
 
     public BeerServiceImpl() {
+        for (BeerStyle beerStyle : BeerStyle.values()) {
+            byStyle.put(beerStyle, new ConcurrentSkipListSet<>(NAME_ORDER));
+        }
+
         BeerDTO beerDTO1 = BeerDTO.builder()
                 .id(UUID.fromString("60501fcd-487e-4d83-8c67-3001482e35a2"))
                 .version(1)
@@ -52,21 +95,85 @@ public class BeerServiceImpl implements BeerService {
                 .updatedDate(LocalDateTime.now())
                 .build();
 
-        beerMap.put(beerDTO1.getId(), beerDTO1);
-        beerMap.put(beerDTO2.getId(), beerDTO2);
-        beerMap.put(beerDTO3.getId(), beerDTO3);
+        write(beerDTO1.getId(), existing -> beerDTO1);
+        write(beerDTO2.getId(), existing -> beerDTO2);
+        write(beerDTO3.getId(), existing -> beerDTO3);
+    }
 
+    @Override
+    public Optional<BeerDTO> getBeerById(UUID id) {
+        return Optional.ofNullable(beerMap.get(id)).map(BeerServiceImpl::copy);
+    }
 
+    @Override
+    public Optional<BeerDTO> getBeerById(UUID id, int currentVersion) {
+        return getBeerById(id);
     }
 
     @Override
-    public Optional<BeerDTO> getBeerById(UUID id) {
-        return Optional.ofNullable(beerMap.get(id));
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return Optional.ofNullable(beerMap.get(id)).map(BeerDTO::getVersion);
     }
 
     @Override
     public Page<BeerDTO> listAllBeers(String beerName, Boolean showInventoryOnHand, BeerStyle beerStyle, Integer pageNumber, Integer pageSize) {
-        return new PageImpl<>(new ArrayList<>(beerMap.values()));
+        PageRequest pageRequest = PageRequest.of(queryPageNumber(pageNumber), queryPageSize(pageSize), Sort.by("beerName"));
+
+        List<BeerDTO> content = matching(beerName, beerStyle, null)
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .map(beerDTO -> view(beerDTO, showInventoryOnHand))
+                .toList();
+
+        return new PageImpl<>(content, pageRequest, countBeers(beerName, beerStyle));
+    }
+
+    @Override
+    public SlicePage<BeerDTO> listBeerSlice(String beerName, Boolean showInventory, BeerStyle beerStyle, Integer pageNumber, Integer pageSize, boolean withTotal) {
+        int queryPageNumber = queryPageNumber(pageNumber);
+        int limit = queryPageSize(pageSize);
+
+        List<BeerDTO> matching = matching(beerName, beerStyle, null)
+                .skip((long) queryPageNumber * limit)
+                .limit(limit + 1)
+                .toList();
+
+        boolean hasNext = matching.size() > limit;
+        List<BeerDTO> content = (hasNext ? matching.subList(0, limit) : matching).stream()
+                .map(beerDTO -> view(beerDTO, showInventory))
+                .toList();
+
+        return SlicePage.<BeerDTO>builder()
+                .content(content)
+                .pageNumber(queryPageNumber + 1)
+                .pageSize(limit)
+                .hasNext(hasNext)
+                .approximateTotalElements(withTotal ? countBeers(beerName, beerStyle) : null)
+                .build();
+    }
+
+    @Override
+    public CursorPage<BeerDTO> scrollBeers(String beerName, Boolean showInventory, BeerStyle beerStyle, KeysetCursor cursor, Integer pageSize) {
+        int limit = queryPageSize(pageSize);
+
+        // a cursor cannot point at an unnamed beer, and the database never holds one either
+        List<BeerDTO> matching = matching(beerName, beerStyle, cursor)
+                .filter(beerDTO -> beerDTO.getBeerName() != null)
+                .limit(limit + 1)
+                .toList();
+
+        boolean hasNext = matching.size() > limit;
+        List<BeerDTO> content = (hasNext ? matching.subList(0, limit) : matching).stream()
+                .map(beerDTO -> view(beerDTO, showInventory))
+                .toList();
+        BeerDTO last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        return CursorPage.<BeerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new KeysetCursor(last.getBeerName(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
@@ -82,48 +189,152 @@ public class BeerServiceImpl implements BeerService {
                 .createdDate(LocalDateTime.now())
                 .updatedDate(LocalDateTime.now())
                 .build();
-        beerMap.put(savedBeerDTO.getId(), savedBeerDTO);
-        return savedBeerDTO;
+        write(savedBeerDTO.getId(), existing -> savedBeerDTO);
+        return copy(savedBeerDTO);
     }
 
     @Override
     public Optional<BeerDTO> updateBeer(UUID id, BeerDTO beerDTO) {
-        BeerDTO existingBeerDTO = beerMap.get(id);
-        existingBeerDTO.setBeerName(beerDTO.getBeerName());
-        existingBeerDTO.setBeerStyle(beerDTO.getBeerStyle());
-        existingBeerDTO.setUpc(beerDTO.getUpc());
-        existingBeerDTO.setPrice(beerDTO.getPrice());
-        existingBeerDTO.setQuantityOnHand(beerDTO.getQuantityOnHand());
-        existingBeerDTO.setUpdatedDate(LocalDateTime.now());
-        beerMap.put(id, existingBeerDTO);
-        return Optional.of(existingBeerDTO);
+        return Optional.ofNullable(write(id, existing -> existing == null ? null : existing.toBuilder()
+                        .version(existing.getVersion() + 1)
+                        .beerName(beerDTO.getBeerName())
+                        .beerStyle(beerDTO.getBeerStyle())
+                        .upc(beerDTO.getUpc())
+                        .price(beerDTO.getPrice())
+                        .quantityOnHand(beerDTO.getQuantityOnHand())
+                        .updatedDate(LocalDateTime.now())
+                        .build()))
+                .map(BeerServiceImpl::copy);
     }
 
     @Override
     public void deleteBeer(UUID id) {
-        beerMap.remove(id);
+        write(id, existing -> null);
     }
 
     @Override
     public Optional<BeerDTO> patchBeer(UUID id, BeerDTO beerDTO) {
-        BeerDTO existingBeerDTO = beerMap.get(id);
-        if (beerDTO.getBeerName() != null) {
-            existingBeerDTO.setBeerName(beerDTO.getBeerName());
-        }
+        return Optional.ofNullable(write(id, existing -> {
+            if (existing == null) {
+                return null;
+            }
+            BeerDTO.BeerDTOBuilder patched = existing.toBuilder()
+                    .version(existing.getVersion() + 1)
+                    .updatedDate(LocalDateTime.now());
+            if (StringUtils.hasText(beerDTO.getBeerName())) {
+                patched.beerName(beerDTO.getBeerName());
+            }
+            if (beerDTO.getBeerStyle() != null) {
+                patched.beerStyle(beerDTO.getBeerStyle());
+            }
+            if (StringUtils.hasText(beerDTO.getUpc())) {
+                patched.upc(beerDTO.getUpc());
+            }
+            if (beerDTO.getPrice() != null) {
+                patched.price(beerDTO.getPrice());
+            }
+            if (beerDTO.getQuantityOnHand() != null) {
+                patched.quantityOnHand(beerDTO.getQuantityOnHand());
+            }
+            return patched.build();
+        })).map(BeerServiceImpl::copy);
+    }
+
+    /**
+     * Replaces the stored beer with whatever {@code update} returns ({@code null} removes it) and keeps the
+     * indexes in step. Index changes happen inside {@code compute}, so writes to the same beer are applied
+     * one at a time. Returns the stored beer, never a copy.
+     */
+    private BeerDTO write(UUID id, UnaryOperator<BeerDTO> update) {
+        return beerMap.compute(id, (key, existing) -> {
+            BeerDTO updated = update.apply(existing);
+            if (updated != null) {
+                index(updated);
+            }
+            if (existing != null) {
+                unindex(existing, updated);
+            }
+            return updated;
+        });
+    }
+
+    private void index(BeerDTO beerDTO) {
+        NameKey key = NameKey.of(beerDTO);
+        byName.add(key);
         if (beerDTO.getBeerStyle() != null) {
-            existingBeerDTO.setBeerStyle(beerDTO.getBeerStyle());
+            byStyle.get(beerDTO.getBeerStyle()).add(key);
+        }
+    }
+
+    private void unindex(BeerDTO previous, BeerDTO updated) {
+        NameKey key = NameKey.of(previous);
+        boolean sameKey = updated != null && key.equals(NameKey.of(updated));
+
+        if (!sameKey) {
+            byName.remove(key);
+        }
+        if (previous.getBeerStyle() != null && (!sameKey || previous.getBeerStyle() != updated.getBeerStyle())) {
+            byStyle.get(previous.getBeerStyle()).remove(key);
+        }
+    }
+
+    /**
+     * Stored beers matching the filters in {@code (beerName, id)} order, starting after {@code cursor}.
+     * Like the JPA listing, {@code beerName} matches anywhere in the name, ignoring case.
+     */
+    private Stream<BeerDTO> matching(String beerName, BeerStyle beerStyle, KeysetCursor cursor) {
+        NavigableSet<NameKey> index = beerStyle == null ? byName : byStyle.get(beerStyle);
+        if (cursor != null) {
+            index = index.tailSet(new NameKey(cursor.key(), cursor.id()), false);
+        }
+        String term = StringUtils.hasText(beerName) ? beerName.toLowerCase(Locale.ROOT) : null;
+
+        return index.stream()
+                .map(key -> current(key, beerStyle))
+                .filter(beerDTO -> beerDTO != null
+                        && (term == null || beerDTO.getBeerName() != null && beerDTO.getBeerName().toLowerCase(Locale.ROOT).contains(term)));
+    }
+
+    private BeerDTO current(NameKey key, BeerStyle beerStyle) {
+        BeerDTO beerDTO = beerMap.get(key.id());
+        if (beerDTO == null || !key.equals(NameKey.of(beerDTO))
+                || (beerStyle != null && beerStyle != beerDTO.getBeerStyle())) {
+            return null;
         }
-        if (beerDTO.getUpc() != null) {
-            existingBeerDTO.setUpc(beerDTO.getUpc());
+        return beerDTO;
+    }
+
+    private long countBeers(String beerName, BeerStyle beerStyle) {
+        if (!StringUtils.hasText(beerName) && beerStyle == null) {
+            return beerMap.size();
         }
-        if (beerDTO.getPrice() != null) {
-            existingBeerDTO.setPrice(beerDTO.getPrice());
+        return matching(beerName, beerStyle, null).count();
+    }
+
+    private static int queryPageNumber(Integer pageNumber) {
+        return pageNumber != null && pageNumber > 0 ? pageNumber - 1 : 0;
+    }
+
+    private static int queryPageSize(Integer pageSize) {
+        return pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    }
+
+    private static BeerDTO view(BeerDTO beerDTO, Boolean showInventory) {
+        BeerDTO copy = copy(beerDTO);
+        if (showInventory != null && !showInventory) {
+            copy.setQuantityOnHand(null);
         }
-        if (beerDTO.getQuantityOnHand() != null) {
-            existingBeerDTO.setQuantityOnHand(beerDTO.getQuantityOnHand());
+        return copy;
+    }
+
+    private static BeerDTO copy(BeerDTO beerDTO) {
+        return beerDTO.toBuilder().build();
+    }
+
+    private record NameKey(String beerName, UUID id) {
+
+        static NameKey of(BeerDTO beerDTO) {
+            return new NameKey(beerDTO.getBeerName(), beerDTO.getId());
         }
-        existingBeerDTO.setUpdatedDate(LocalDateTime.now());
-        beerMap.put(id, existingBeerDTO);
-        return null;
     }
 }
@@ -4,16 +4,24 @@ import com.wchamara.spring6restmvc.entities.Beer;
 import com.wchamara.spring6restmvc.mapper.BeerMapper;
 import com.wchamara.spring6restmvc.model.BeerDTO;
 import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.model.SlicePage;
 import com.wchamara.spring6restmvc.repositories.BeerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -24,15 +32,24 @@ public class BeerServiceImplJPA implements BeerService {
 
     private final static Integer DEFAULT_PAGE_NUMBER = 1;
     private final static Integer DEFAULT_PAGE_SIZE = 25;
+    private final static Integer MAX_PAGE_SIZE = 100;
+
+    // sorts before every beer, beer names are never blank
+    private final static KeysetCursor FIRST_CURSOR = new KeysetCursor("", new UUID(0L, 0L));
 
     private final BeerRepository beerRepository;
 
     private final BeerMapper beerMapper;
 
+    private final BeerCountCache beerCountCache;
+
+    private final BeerNameIndex beerNameIndex;
+
+    private final BeerDtoCache beerDtoCache;
+
     public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
 
         int queryPageNumber;
-        int queryPageSize;
 
         if (pageNumber != null && pageNumber > 0) {
             queryPageNumber = pageNumber - 1;
@@ -40,65 +57,161 @@ public class BeerServiceImplJPA implements BeerService {
             queryPageNumber = DEFAULT_PAGE_NUMBER;
         }
 
+        Sort sort = Sort.by("beerName").ascending();
+
+        return PageRequest.of(queryPageNumber, queryPageSize(pageSize), sort);
+
+    }
+
+    private int queryPageSize(Integer pageSize) {
         if (pageSize != null && pageSize > 0) {
-            if (pageSize > 100) {
-                queryPageSize = 100;
-            } else {
-                queryPageSize = pageSize;
-            }
-        } else {
-            queryPageSize = DEFAULT_PAGE_SIZE;
+            return Math.min(pageSize, MAX_PAGE_SIZE);
         }
+        return DEFAULT_PAGE_SIZE;
+    }
 
-        Sort sort = Sort.by("beerName").ascending();
+    @Override
+    public Optional<BeerDTO> getBeerById(UUID id) {
+        // a version lookup on the primary key is far cheaper than loading and mapping the beer, and it catches
+        // writes this instance never saw
+        Optional<Integer> version = beerRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            beerDtoCache.evict(id);
+            return Optional.empty();
+        }
 
-        return PageRequest.of(queryPageNumber, queryPageSize, sort);
+        return getBeerById(id, version.get());
+    }
 
+    @Override
+    public Optional<BeerDTO> getBeerById(UUID id, int currentVersion) {
+        beerDtoCache.evictIfStale(id, currentVersion);
+        return beerDtoCache.get(id, key -> beerRepository.findBeerDtoById(key, true));
     }
 
     @Override
-    public Optional<BeerDTO> getBeerById(UUID id) {
-        return Optional.ofNullable(beerMapper.beerToBeerDto(beerRepository.findById(id).orElse(null)));
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return beerRepository.findVersionById(id);
     }
 
     @Override
     public Page<BeerDTO> listAllBeers(String beerName, Boolean showInventory, BeerStyle beerStyle, Integer pageNumber, Integer pageSize) {
-        Page<Beer> beerPage;
+        PageRequest pageRequest = buildPageRequest(pageNumber, pageSize);
+        boolean withInventory = showInventory == null || showInventory;
+
+        if (StringUtils.hasText(beerName) && beerStyle == null) {
+            return listBeersByName(beerName, withInventory, pageRequest);
+        } else if (StringUtils.hasText(beerName) && beerStyle != null) {
+            return listBeerNameAndStyle(beerName, beerStyle, withInventory, pageRequest);
+        } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
+            return beerRepository.findBeerDtosByBeerStyle(beerStyle, withInventory, pageRequest);
+        }
+        return beerRepository.findAllBeerDtos(withInventory, pageRequest);
+    }
+
+    @Override
+    public SlicePage<BeerDTO> listBeerSlice(String beerName, Boolean showInventory, BeerStyle beerStyle, Integer pageNumber, Integer pageSize, boolean withTotal) {
+        Slice<BeerDTO> beerSlice;
 
         PageRequest pageRequest = buildPageRequest(pageNumber, pageSize);
+        boolean withInventory = showInventory == null || showInventory;
+
+        if (StringUtils.hasText(beerName) && beerStyle == null) {
+            beerSlice = beerRepository.findBeerDtoSliceByBeerName("%" + beerName + "%", withInventory, pageRequest);
+        } else if (StringUtils.hasText(beerName) && beerStyle != null) {
+            beerSlice = beerRepository.findBeerDtoSliceByBeerNameAndBeerStyle("%" + beerName + "%", beerStyle, withInventory, pageRequest);
+        } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
+            beerSlice = beerRepository.findBeerDtoSliceByBeerStyle(beerStyle, withInventory, pageRequest);
+        } else {
+            beerSlice = beerRepository.findBeerDtoSlice(withInventory, pageRequest);
+        }
+
+        Long total = withTotal
+                ? beerCountCache.approximateCount(beerName, beerStyle, () -> countBeers(beerName, beerStyle))
+                : null;
+
+        return SlicePage.<BeerDTO>builder()
+                .content(beerSlice.getContent())
+                .pageNumber(pageRequest.getPageNumber() + 1)
+                .pageSize(pageRequest.getPageSize())
+                .hasNext(beerSlice.hasNext())
+                .approximateTotalElements(total)
+                .build();
+    }
+
+    private long countBeers(String beerName, BeerStyle beerStyle) {
+        if (StringUtils.hasText(beerName) && beerStyle == null) {
+            return beerRepository.countByBeerNameIsLikeIgnoreCase("%" + beerName + "%");
+        } else if (StringUtils.hasText(beerName) && beerStyle != null) {
+            return beerRepository.countByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%", beerStyle);
+        } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
+            return beerRepository.countByBeerStyle(beerStyle);
+        }
+        return beerRepository.count();
+    }
+
+    @Override
+    public CursorPage<BeerDTO> scrollBeers(String beerName, Boolean showInventory, BeerStyle beerStyle, KeysetCursor cursor, Integer pageSize) {
+        KeysetCursor after = cursor == null ? FIRST_CURSOR : cursor;
+        boolean withInventory = showInventory == null || showInventory;
+        int size = queryPageSize(pageSize);
+        // one row more than the page tells whether there is a next one
+        Limit limit = Limit.of(size + 1);
+        List<BeerDTO> rows;
 
         if (StringUtils.hasText(beerName) && beerStyle == null) {
-            beerPage = listBeersByName(beerName, pageRequest);
+            rows = beerRepository.scrollBeerDtosByBeerName("%" + beerName + "%", after.key(), after.id(), withInventory, limit);
         } else if (StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeerNameAndStyle(beerName, beerStyle, pageRequest);
+            rows = beerRepository.scrollBeerDtosByBeerNameAndBeerStyle("%" + beerName + "%", beerStyle, after.key(), after.id(), withInventory, limit);
         } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = getAllByBeerStyle(beerStyle, pageRequest);
+            rows = beerRepository.scrollBeerDtosByBeerStyle(beerStyle, after.key(), after.id(), withInventory, limit);
         } else {
-            beerPage = beerRepository.findAll(pageRequest);
+            rows = beerRepository.scrollBeerDtos(after.key(), after.id(), withInventory, limit);
         }
 
-        if (showInventory != null && !showInventory) {
-            beerPage.forEach(beer -> beer.setQuantityOnHand(null));
+        List<BeerDTO> content = rows.size() > size ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            BeerDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getBeerName(), last.getId()).encode();
         }
 
-        return beerPage.map(beerMapper::beerToBeerDto);
+        return CursorPage.<BeerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
     }
 
-    private Page<Beer> getAllByBeerStyle(BeerStyle beerStyle, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerStyle(beerStyle, pageRequest);
+    private Page<BeerDTO> listBeerNameAndStyle(String beerName, BeerStyle beerStyle, boolean withInventory, PageRequest pageRequest) {
+        return beerNameIndex.search(beerName, beerStyle)
+                .map(ids -> getBeerPage(ids, withInventory, pageRequest))
+                .orElseGet(() -> beerRepository.findBeerDtosByBeerNameAndBeerStyle("%" + beerName + "%", beerStyle, withInventory, pageRequest));
     }
 
-    private Page<Beer> listBeerNameAndStyle(String beerName, BeerStyle beerStyle, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%", beerStyle, pageRequest);
+    private Page<BeerDTO> listBeersByName(String beerName, boolean withInventory, PageRequest pageRequest) {
+        return beerNameIndex.search(beerName, null)
+                .map(ids -> getBeerPage(ids, withInventory, pageRequest))
+                .orElseGet(() -> beerRepository.findBeerDtosByBeerName("%" + beerName + "%", withInventory, pageRequest));
     }
 
-    private Page<Beer> listBeersByName(String beerName, PageRequest pageRequest) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCase("%" + beerName + "%", pageRequest);
+    private Page<BeerDTO> getBeerPage(Set<UUID> ids, boolean withInventory, PageRequest pageRequest) {
+        if (ids.isEmpty()) {
+            return Page.empty(pageRequest);
+        }
+
+        // the database orders the matches, so a page looks the same whichever path answered it
+        List<BeerDTO> content = beerRepository.findBeerDtosByIdIn(ids, withInventory, pageRequest);
+        return PageableExecutionUtils.getPage(content, pageRequest, ids::size);
     }
 
     @Override
     public BeerDTO saveNewBeer(BeerDTO beerDTO) {
         Beer savedBeer = beerRepository.save(beerMapper.beerDtoToBeer(beerDTO));
+        beerNameIndex.index(savedBeer);
+        beerDtoCache.evict(savedBeer.getId());
         return beerMapper.beerToBeerDto(savedBeer);
     }
 
@@ -111,7 +224,10 @@ public class BeerServiceImplJPA implements BeerService {
             beer.setPrice(beerDTO.getPrice());
             beer.setQuantityOnHand(beerDTO.getQuantityOnHand());
 
-            beerOptional.set(Optional.of(beerMapper.beerToBeerDto(beerRepository.save(beer))));
+            Beer savedBeer = beerRepository.save(beer);
+            beerNameIndex.index(savedBeer);
+            beerDtoCache.evict(id);
+            beerOptional.set(Optional.of(beerMapper.beerToBeerDto(savedBeer)));
 
         }, () -> {
             beerOptional.set(Optional.empty());
@@ -123,6 +239,8 @@ public class BeerServiceImplJPA implements BeerService {
     @Override
     public void deleteBeer(UUID id) {
         beerRepository.deleteById(id);
+        beerNameIndex.remove(id);
+        beerDtoCache.evict(id);
     }
 
     @Override
@@ -145,8 +263,10 @@ public class BeerServiceImplJPA implements BeerService {
             if (beerDTO.getQuantityOnHand() != null) {
                 foundBeer.setQuantityOnHand(beerDTO.getQuantityOnHand());
             }
-            atomicReference.set(Optional.of(beerMapper
-                    .beerToBeerDto(beerRepository.save(foundBeer))));
+            Beer savedBeer = beerRepository.save(foundBeer);
+            beerNameIndex.index(savedBeer);
+            beerDtoCache.evict(beerId);
+            atomicReference.set(Optional.of(beerMapper.beerToBeerDto(savedBeer)));
         }, () -> {
             atomicReference.set(Optional.empty());
         });
@@ -1,9 +1,11 @@
 package com.wchamara.spring6restmvc.service;
 
 
+import com.wchamara.spring6restmvc.model.CursorPage;
 import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import org.springframework.data.domain.Page;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,13 +16,23 @@ public interface CustomerService {
 
     Optional<CustomerDTO> getCustomerById(UUID uuid);
 
-    List<CustomerDTO> getAllCustomers();
+    /**
+     * Current {@code @Version} of the customer, looked up without loading or mapping the entity.
+     */
+    Optional<Integer> getCustomerVersion(UUID uuid);
+
+    /**
+     * One page of customers sorted by name, {@code pageNumber} starting at 1.
+     */
+    Page<CustomerDTO> listCustomers(Integer pageNumber, Integer pageSize);
+
+    CursorPage<CustomerDTO> scrollCustomers(KeysetCursor cursor, Integer pageSize);
 
     CustomerDTO saveNewCustomer(CustomerDTO customer);
 
-    void updateCustomerById(UUID customerId, CustomerDTO customer);
+    Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer);
 
     void deleteCustomerById(UUID customerId);
 
-    void patchCustomerById(UUID customerId, CustomerDTO customer);
+    Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer);
 }
\ No newline at end of file
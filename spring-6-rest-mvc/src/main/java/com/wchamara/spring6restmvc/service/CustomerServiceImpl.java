@@ -1,19 +1,59 @@
 package com.wchamara.spring6restmvc.service;
 
+import com.wchamara.spring6restmvc.model.CursorPage;
 import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Created by jt, Spring Framework Guru.
+ * <p>
+ * Customers are stored as values that are never mutated: every write builds a new {@link CustomerDTO} and
+ * swaps it in with {@code compute}, which only locks the bin of that id, and keeps a lock-free skip list
+ * sorted by {@code (name, id)} in step.
+ * <p>
+ * Listings read an immutable, name-sorted snapshot array, so a page and its total always come from the same
+ * point in time, cutting a page out of a million customers is a range copy and a keyset cursor is found by
+ * binary search. A write only bumps a
+ * counter; the next listing that sees the counter moved copies the skip list into a fresh snapshot. Only one
+ * listing rebuilds at a time, the ones arriving meanwhile are served the previous snapshot rather than each
+ * copying the whole store again. Writers never wait for readers and readers never wait for writers.
  */
 @Service
 public class CustomerServiceImpl implements CustomerService {
 
-    private Map<UUID, CustomerDTO> customerMap;
+    private final static int DEFAULT_PAGE_SIZE = 25;
+    private final static int MAX_PAGE_SIZE = 1000;
+
+    private final static Comparator<NameKey> NAME_ORDER = Comparator
+            .comparing(NameKey::name, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(NameKey::id);
+
+    private final Map<UUID, CustomerDTO> customerMap = new ConcurrentHashMap<>();
+    private final NavigableSet<NameKey> byName = new ConcurrentSkipListSet<>(NAME_ORDER);
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0, new CustomerDTO[0]));
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
 
     public CustomerServiceImpl() {
         CustomerDTO customer1 = CustomerDTO.builder()
@@ -40,34 +80,39 @@ public class CustomerServiceImpl implements CustomerService {
                 .updateDate(LocalDateTime.now())
                 .build();
 
-        customerMap = new HashMap<>();
-        customerMap.put(customer1.getId(), customer1);
-        customerMap.put(customer2.getId(), customer2);
-        customerMap.put(customer3.getId(), customer3);
+        write(customer1.getId(), existing -> customer1);
+        write(customer2.getId(), existing -> customer2);
+        write(customer3.getId(), existing -> customer3);
     }
 
     @Override
-    public void patchCustomerById(UUID customerId, CustomerDTO customer) {
-        CustomerDTO existing = customerMap.get(customerId);
-
-        if (StringUtils.hasText(customer.getName())) {
-            existing.setName(customer.getName());
-        }
+    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer) {
+        return write(customerId, existing -> existing == null || !StringUtils.hasText(customer.getName()) ? existing
+                : existing.toBuilder()
+                .name(customer.getName())
+                .version(existing.getVersion() + 1)
+                .updateDate(LocalDateTime.now())
+                .build());
     }
 
     @Override
     public void deleteCustomerById(UUID customerId) {
-        customerMap.remove(customerId);
+        write(customerId, existing -> null);
     }
 
     @Override
-    public void updateCustomerById(UUID customerId, CustomerDTO customer) {
-        CustomerDTO existing = customerMap.get(customerId);
-        existing.setName(customer.getName());
+    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer) {
+        requireName(customer);
+        return write(customerId, existing -> existing == null ? null : existing.toBuilder()
+                .name(customer.getName())
+                .version(existing.getVersion() + 1)
+                .updateDate(LocalDateTime.now())
+                .build());
     }
 
     @Override
     public CustomerDTO saveNewCustomer(CustomerDTO customer) {
+        requireName(customer);
 
         CustomerDTO savedCustomer = CustomerDTO.builder()
                 .id(UUID.randomUUID())
@@ -77,18 +122,142 @@ public class CustomerServiceImpl implements CustomerService {
                 .name(customer.getName())
                 .build();
 
-        customerMap.put(savedCustomer.getId(), savedCustomer);
+        write(savedCustomer.getId(), existing -> savedCustomer);
 
-        return savedCustomer;
+        return copy(savedCustomer);
     }
 
     @Override
     public Optional<CustomerDTO> getCustomerById(UUID uuid) {
-        return Optional.ofNullable(customerMap.get(uuid));
+        return Optional.ofNullable(customerMap.get(uuid)).map(CustomerServiceImpl::copy);
+    }
+
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID uuid) {
+        return Optional.ofNullable(customerMap.get(uuid)).map(CustomerDTO::getVersion);
     }
 
     @Override
-    public List<CustomerDTO> getAllCustomers() {
-        return new ArrayList<>(customerMap.values());
+    public Page<CustomerDTO> listCustomers(Integer pageNumber, Integer pageSize) {
+        int queryPageNumber = pageNumber != null && pageNumber > 0 ? pageNumber - 1 : 0;
+        int queryPageSize = pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        PageRequest pageRequest = PageRequest.of(queryPageNumber, queryPageSize, Sort.by("name"));
+
+        CustomerDTO[] customers = currentSnapshot().customers();
+        int from = (int) Math.min(pageRequest.getOffset(), customers.length);
+        int to = Math.min(from + queryPageSize, customers.length);
+        List<CustomerDTO> content = Arrays.stream(customers, from, to).map(CustomerServiceImpl::copy).toList();
+
+        return new PageImpl<>(content, pageRequest, customers.length);
+    }
+
+    @Override
+    public CursorPage<CustomerDTO> scrollCustomers(KeysetCursor cursor, Integer pageSize) {
+        int limit = pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        CustomerDTO[] customers = currentSnapshot().customers();
+        int from = cursor == null ? 0 : firstAfter(customers, new NameKey(cursor.key(), cursor.id()));
+        int to = Math.min(from + limit, customers.length);
+        List<CustomerDTO> content = Arrays.stream(customers, from, to).map(CustomerServiceImpl::copy).toList();
+
+        boolean hasNext = to < customers.length;
+        CustomerDTO last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        return CursorPage.<CustomerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new KeysetCursor(last.getName(), last.getId()).encode() : null)
+                .build();
+    }
+
+    private static int firstAfter(CustomerDTO[] customers, NameKey key) {
+        int low = 0;
+        int high = customers.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (NAME_ORDER.compare(NameKey.of(customers[mid]), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Replaces the stored customer with whatever {@code update} returns ({@code null} removes it) and keeps
+     * the name index in step.
+     */
+    /**
+     * Replaces the customer with what {@code update} returns, null removes it. Returns a copy of the new value.
+     */
+    private Optional<CustomerDTO> write(UUID id, UnaryOperator<CustomerDTO> update) {
+        CustomerDTO written = customerMap.compute(id, (key, existing) -> {
+            CustomerDTO updated = update.apply(existing);
+            if (updated != null) {
+                byName.add(NameKey.of(updated));
+            }
+            if (existing != null && (updated == null || !NameKey.of(existing).equals(NameKey.of(updated)))) {
+                byName.remove(NameKey.of(existing));
+            }
+            return updated;
+        });
+        // bumped only once the map holds the new value, so a snapshot tagged with a count never misses it
+        modifications.incrementAndGet();
+        return Optional.ofNullable(written).map(CustomerServiceImpl::copy);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current.version() == modifications.get() || !rebuilding.compareAndSet(false, true)) {
+            return current;
+        }
+
+        try {
+            // another reader may have rebuilt between the check and taking the flag
+            current = snapshot.get();
+            long version = modifications.get();
+            if (current.version() == version) {
+                return current;
+            }
+
+            // a rename can briefly leave both keys in the index, so only keep keys that match the stored customer
+            CustomerDTO[] customers = byName.stream()
+                    .map(key -> {
+                        CustomerDTO customer = customerMap.get(key.id());
+                        return customer != null && key.equals(NameKey.of(customer)) ? customer : null;
+                    })
+                    .filter(customer -> customer != null)
+                    .toArray(CustomerDTO[]::new);
+            Snapshot rebuilt = new Snapshot(version, customers);
+            snapshot.set(rebuilt);
+            return rebuilt;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Names are the sort key of every listing, so like the JPA store this one refuses customers without one.
+     */
+    private static void requireName(CustomerDTO customer) {
+        if (!StringUtils.hasText(customer.getName())) {
+            throw new IllegalArgumentException("Customer name is required");
+        }
+    }
+
+    private static CustomerDTO copy(CustomerDTO customer) {
+        return customer.toBuilder().build();
+    }
+
+    private record NameKey(String name, UUID id) {
+
+        static NameKey of(CustomerDTO customer) {
+            return new NameKey(customer.getName(), customer.getId());
+        }
+    }
+
+    private record Snapshot(long version, CustomerDTO[] customers) {
     }
-}
\ No newline at end of file
+}
@@ -1,45 +1,136 @@
 package com.wchamara.spring6restmvc.service;
 
+import com.wchamara.spring6restmvc.entities.Customer;
+import com.wchamara.spring6restmvc.mapper.CustomerMapper;
+import com.wchamara.spring6restmvc.model.CursorPage;
 import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.repositories.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Every listing is bounded: pages and keyset windows are capped at {@value #MAX_PAGE_SIZE} customers,
+ * so no request loads the whole table. Reads run in read-only transactions.
+ */
 @Primary
 @RequiredArgsConstructor
 @Service
 public class CustomerServiceImplJPA implements CustomerService {
+
+    private final static int DEFAULT_PAGE_SIZE = 25;
+    private final static int MAX_PAGE_SIZE = 1000;
+
+    private final static Sort KEYSET_SORT = Sort.by("name").ascending().and(Sort.by("id").ascending());
+
+    private final CustomerRepository customerRepository;
+
+    private final CustomerMapper customerMapper;
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<CustomerDTO> getCustomerById(UUID uuid) {
-        return Optional.empty();
+        return customerRepository.findById(uuid).map(customerMapper::customerToCustomerDto);
     }
 
     @Override
-    public List<CustomerDTO> getAllCustomers() {
-        return List.of();
+    @Transactional(readOnly = true)
+    public Optional<Integer> getCustomerVersion(UUID uuid) {
+        return customerRepository.findVersionById(uuid);
     }
 
     @Override
-    public CustomerDTO saveNewCustomer(CustomerDTO customer) {
-        return null;
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> listCustomers(Integer pageNumber, Integer pageSize) {
+        int queryPageNumber = pageNumber != null && pageNumber > 0 ? pageNumber - 1 : 0;
+        PageRequest pageRequest = PageRequest.of(queryPageNumber, queryPageSize(pageSize), KEYSET_SORT);
+
+        return customerRepository.findAll(pageRequest).map(customerMapper::customerToCustomerDto);
     }
 
     @Override
-    public void updateCustomerById(UUID customerId, CustomerDTO customer) {
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerDTO> scrollCustomers(KeysetCursor cursor, Integer pageSize) {
+        ScrollPosition position = cursor == null ? ScrollPosition.keyset() : cursor.toScrollPosition("name");
+        Window<Customer> customerWindow = customerRepository.findAllBy(position, Limit.of(queryPageSize(pageSize)), KEYSET_SORT);
+
+        List<CustomerDTO> content = customerWindow.map(customerMapper::customerToCustomerDto).getContent();
 
+        String nextCursor = null;
+        if (customerWindow.hasNext() && !content.isEmpty()) {
+            CustomerDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getName(), last.getId()).encode();
+        }
+
+        return CursorPage.<CustomerDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
-    public void deleteCustomerById(UUID customerId) {
+    @Transactional
+    public CustomerDTO saveNewCustomer(CustomerDTO customerDTO) {
+        Customer customer = customerMapper.customerDtoToCustomer(customerDTO);
+        // always a new row, a client supplied id or version would turn the save into a merge
+        customer.setId(null);
+        customer.setVersion(null);
+        return customerMapper.customerToCustomerDto(customerRepository.save(customer));
+    }
+
+    @Override
+    @Transactional
+    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer) {
+        AtomicReference<Optional<CustomerDTO>> customerOptional = new AtomicReference<>();
+        customerRepository.findById(customerId).ifPresentOrElse(foundCustomer -> {
+            foundCustomer.setName(customer.getName());
+            customerOptional.set(Optional.of(customerMapper.customerToCustomerDto(customerRepository.save(foundCustomer))));
+        }, () -> {
+            customerOptional.set(Optional.empty());
+        });
 
+        return customerOptional.get();
     }
 
     @Override
-    public void patchCustomerById(UUID customerId, CustomerDTO customer) {
+    @Transactional
+    public void deleteCustomerById(UUID customerId) {
+        customerRepository.deleteById(customerId);
+    }
+
+    @Override
+    @Transactional
+    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer) {
+        AtomicReference<Optional<CustomerDTO>> customerOptional = new AtomicReference<>();
+        customerRepository.findById(customerId).ifPresentOrElse(foundCustomer -> {
+            if (StringUtils.hasText(customer.getName())) {
+                foundCustomer.setName(customer.getName());
+            }
+            customerOptional.set(Optional.of(customerMapper.customerToCustomerDto(customerRepository.save(foundCustomer))));
+        }, () -> {
+            customerOptional.set(Optional.empty());
+        });
+
+        return customerOptional.get();
+    }
 
+    private static int queryPageSize(Integer pageSize) {
+        return pageSize != null && pageSize > 0 ? Math.min(pageSize, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
     }
 }
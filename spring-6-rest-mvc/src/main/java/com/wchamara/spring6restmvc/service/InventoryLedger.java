@@ -0,0 +1,333 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerStock;
+import com.wchamara.spring6restmvc.model.StockReservation;
+import com.wchamara.spring6restmvc.repositories.BeerOrderRepository;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import com.wchamara.spring6restmvc.entities.Beer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory stock of beers for reservations that must not queue on the {@code beer} row.
+ * <p>
+ * Each beer holds its last stored {@code quantityOnHand} and the stock reserved since then, as one immutable
+ * pair swapped by compare-and-set, so {@link #reserve(UUID, int)} and {@link #release(UUID, int)} never lock and
+ * never hand out more than the stored quantity. A reservation is only held in memory until the order that made it
+ * commits its lines with {@code stockPending} set. A background flush then takes the stock of those lines from
+ * the beer rows in id order and clears the flag in the same transaction, in chunks of
+ * {@code beer.inventory.flush-batch-size} beers, and reloads the stored quantity of every known beer so writes made
+ * outside the ledger are picked up. If a chunk fails, its lines stay pending and its beers are reloaded from the
+ * database. Lines left pending by an instance that stopped before its flush are replayed by {@link #reconcile()}
+ * on startup.
+ * <p>
+ * The counts are per instance, so the ledger must only be enabled on a single instance: two instances would each
+ * hand out the full stock.
+ * <p>
+ * Off unless {@code beer.inventory.ledger.enabled=true}. Like the import pool, the flush scheduler is not a bean,
+ * so Boot's own {@code taskScheduler} is left alone.
+ */
+@Slf4j
+@Component
+public class InventoryLedger {
+
+    private final BeerRepository beerRepository;
+    private final BeerOrderRepository beerOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache secondLevelCache;
+    private final BeerDtoCache beerDtoCache;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int flushBatchSize;
+
+    private final Map<UUID, AtomicReference<Counts>> stocks = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<AtomicReference<Counts>>> loads = new ConcurrentHashMap<>();
+    // j.u.c. locks rather than monitors, so a thread waiting on one or doing JDBC under one never pins a virtual thread
+    private final Lock flushing = new ReentrantLock();
+    private final ReadWriteLock chunkLock = new ReentrantReadWriteLock();
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    public InventoryLedger(BeerRepository beerRepository,
+                           BeerOrderRepository beerOrderRepository,
+                           TransactionTemplate transactionTemplate,
+                           EntityManagerFactory entityManagerFactory,
+                           BeerDtoCache beerDtoCache,
+                           @Value("${beer.inventory.ledger.enabled:false}") boolean enabled,
+                           @Value("${beer.inventory.flush-interval:1s}") Duration flushInterval,
+                           @Value("${beer.inventory.flush-batch-size:500}") int flushBatchSize) {
+        this.beerRepository = beerRepository;
+        this.beerOrderRepository = beerOrderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.beerDtoCache = beerDtoCache;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        reconcile();
+        scheduler.setThreadNamePrefix("inventory-flush-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        if (enabled) {
+            flushQuietly();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes {@code quantity} from the beer's available stock if there is enough of it. The caller either commits
+     * order lines with {@code stockPending} set for it or gives it back with {@link #release(UUID, int)}.
+     *
+     * @throws IllegalArgumentException if the beer does not exist or {@code quantity} is not positive.
+     */
+    public boolean reserve(UUID beerId, int quantity) {
+        requirePositive(quantity);
+        AtomicReference<Counts> counts = stock(beerId);
+        while (true) {
+            Counts current = counts.get();
+            if (current.available() < quantity) {
+                return false;
+            }
+            if (counts.compareAndSet(current, new Counts(current.stored(), current.pending() - quantity))) {
+                return true;
+            }
+        }
+    }
+
+    public void release(UUID beerId, int quantity) {
+        requirePositive(quantity);
+        stock(beerId).updateAndGet(current -> new Counts(current.stored(), current.pending() + quantity));
+    }
+
+    public int available(UUID beerId) {
+        return stock(beerId).get().available();
+    }
+
+    /**
+     * Takes the stock of committed order lines still marked {@code stockPending} from the beer rows, reloads the
+     * stored quantity of every known beer and returns how many beers had stock taken. Only one flush runs at a
+     * time; reservations carry on while it does, and first loads only wait for the chunk being written.
+     */
+    public int flush() {
+        flushing.lock();
+        try {
+            return flushChunks();
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    private int flushChunks() {
+        // every known beer, so a restock is picked up even with nothing pending, and every beer with pending lines,
+        // so lines left by an earlier run are taken too
+        Set<UUID> beerIds = new TreeSet<>(stocks.keySet());
+        beerIds.addAll(beerOrderRepository.findBeerIdsWithPendingStock());
+        List<UUID> ids = new ArrayList<>(beerIds);
+
+        int flushed = 0;
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + flushBatchSize, ids.size()));
+
+            chunkLock.writeLock().lock();
+            try {
+                flushed += flushChunk(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Inventory flush of {} beers failed, reloading them from the database", chunk.size(), e);
+                reload(chunk);
+            } finally {
+                chunkLock.writeLock().unlock();
+            }
+        }
+        return flushed;
+    }
+
+    private int flushChunk(List<UUID> chunk) {
+        Flushed result = transactionTemplate.execute(status -> {
+            List<StockReservation> reservations = beerOrderRepository.findPendingStockByBeerIdIn(chunk);
+            Map<UUID, Integer> taken = reservations.stream().collect(Collectors.groupingBy(
+                    StockReservation::beerId, TreeMap::new, Collectors.summingInt(StockReservation::quantity)));
+
+            LocalDateTime now = LocalDateTime.now();
+            // in id order, the same lock order as order placement, so a flush cannot deadlock with it
+            taken.forEach((beerId, quantity) -> beerRepository.adjustQuantityOnHand(beerId, -quantity, now));
+            if (!reservations.isEmpty()) {
+                beerOrderRepository.markStockWritten(reservations.stream().map(StockReservation::lineId).toList());
+            }
+            return new Flushed(taken, beerRepository.findStockByIdIn(chunk));
+        });
+        update(chunk, result.stored(), (counts, quantityOnHand, beerId) ->
+                new Counts(quantityOnHand, counts.pending() + result.taken().getOrDefault(beerId, 0)));
+
+        result.taken().keySet().forEach(beerId -> {
+            secondLevelCache.evict(Beer.class, beerId);
+            beerDtoCache.evict(beerId);
+        });
+        return result.taken().size();
+    }
+
+    /**
+     * Takes the stock of order lines that were committed but never flushed, for example by an instance that
+     * stopped before its next flush, and reloads the stored quantity of every known beer.
+     */
+    public void reconcile() {
+        int replayed = flush();
+        log.info("Inventory ledger reconciled {} beers, {} with unflushed orders", stocks.size(), replayed);
+    }
+
+    private void reload(Collection<UUID> beerIds) {
+        List<UUID> ids = new ArrayList<>(beerIds);
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + flushBatchSize, ids.size()));
+            update(chunk, beerRepository.findStockByIdIn(chunk),
+                    (counts, quantityOnHand, beerId) -> new Counts(quantityOnHand, counts.pending()));
+        }
+    }
+
+    private void update(Iterable<UUID> beerIds, List<BeerStock> stored, CountsUpdate countsUpdate) {
+        Map<UUID, Integer> quantities = stored.stream()
+                .collect(Collectors.toMap(BeerStock::id, BeerStock::quantityOnHand));
+
+        for (UUID beerId : beerIds) {
+            Integer quantityOnHand = quantities.get(beerId);
+            if (quantityOnHand == null) {
+                // deleted in the meantime, nothing left to reserve or flush
+                stocks.remove(beerId);
+                continue;
+            }
+            AtomicReference<Counts> counts = stocks.get(beerId);
+            if (counts != null) {
+                counts.updateAndGet(current -> countsUpdate.apply(current, quantityOnHand, beerId));
+            }
+        }
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Inventory flush failed", e);
+        }
+    }
+
+    private AtomicReference<Counts> stock(UUID beerId) {
+        AtomicReference<Counts> counts = stocks.get(beerId);
+        return counts != null ? counts : load(beerId);
+    }
+
+    /**
+     * Loads a beer on first use with the stock of its committed but unflushed lines already taken. Concurrent
+     * first uses of the same beer share one load. It holds the chunk lock for reading, so no flush moves those
+     * lines to the beer row between the two reads, while loads of other beers still run side by side.
+     */
+    private AtomicReference<Counts> load(UUID beerId) {
+        CompletableFuture<AtomicReference<Counts>> loading = new CompletableFuture<>();
+        CompletableFuture<AtomicReference<Counts>> future = loads.putIfAbsent(beerId, loading);
+        if (future == null) {
+            future = loading;
+            // loaded outside the map so the selects never run under a bin lock
+            try {
+                loading.complete(read(beerId));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            } finally {
+                loads.remove(beerId, loading);
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private AtomicReference<Counts> read(UUID beerId) {
+        chunkLock.readLock().lock();
+        try {
+            AtomicReference<Counts> counts = stocks.get(beerId);
+            if (counts != null) {
+                return counts;
+            }
+
+            int quantityOnHand = beerRepository.findStockByIdIn(List.of(beerId)).stream()
+                    .findFirst()
+                    .map(BeerStock::quantityOnHand)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown beer " + beerId));
+            int reserved = Math.toIntExact(beerOrderRepository.sumPendingStockByBeerId(beerId));
+            AtomicReference<Counts> loaded = new AtomicReference<>(new Counts(quantityOnHand, -reserved));
+            AtomicReference<Counts> existing = stocks.putIfAbsent(beerId, loaded);
+            return existing == null ? loaded : existing;
+        } finally {
+            chunkLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param stored  {@code quantityOnHand} as last read from the database.
+     * @param pending net change reserved or released since then and not yet flushed, negative while stock is
+     *                reserved.
+     */
+    private record Counts(int stored, int pending) {
+
+        int available() {
+            return stored + pending;
+        }
+    }
+
+    private record Flushed(Map<UUID, Integer> taken, List<BeerStock> stored) {
+    }
+
+    @FunctionalInterface
+    private interface CountsUpdate {
+        Counts apply(Counts counts, int quantityOnHand, UUID beerId);
+    }
+}
@@ -0,0 +1,85 @@
+-- Converts every UUID primary and foreign key from varchar(36) to binary(16), only applied with the binaryuuid profile.
+-- Values keep the standard byte order (uuid_to_bin without the swap flag), the layout Hibernate binds for BINARY.
+
+alter table beer_order
+    drop foreign key beer_order_ibfk_1,
+    drop foreign key bos_shipment_fk;
+
+alter table beer_order_line
+    drop foreign key beer_order_line_ibfk_1,
+    drop foreign key beer_order_line_ibfk_2;
+
+alter table beer_category
+    drop foreign key pc_beer_id_fk,
+    drop foreign key pc_category_id_fk;
+
+alter table beer_order_shipment
+    drop foreign key bos_pk;
+
+-- the text as raw bytes first, so uuid_to_bin reads it without a charset conversion
+alter table beer modify id varbinary(36) not null;
+alter table customer modify id varbinary(36) not null;
+alter table category modify id varbinary(36) not null;
+alter table beer_category
+    modify beer_id varbinary(36) not null,
+    modify category_id varbinary(36) not null;
+alter table beer_order
+    modify id varbinary(36) not null,
+    modify customer_id varbinary(36),
+    modify beer_order_shipment_id varbinary(36);
+alter table beer_order_line
+    modify id varbinary(36) not null,
+    modify beer_id varbinary(36),
+    modify beer_order_id varbinary(36);
+alter table beer_order_shipment
+    modify id varbinary(36) not null,
+    modify beer_order_id varbinary(36);
+
+update beer set id = uuid_to_bin(id);
+update customer set id = uuid_to_bin(id);
+update category set id = uuid_to_bin(id);
+update beer_category set beer_id = uuid_to_bin(beer_id), category_id = uuid_to_bin(category_id);
+update beer_order
+set id                     = uuid_to_bin(id),
+    customer_id            = uuid_to_bin(customer_id),
+    beer_order_shipment_id = uuid_to_bin(beer_order_shipment_id);
+update beer_order_line
+set id            = uuid_to_bin(id),
+    beer_id       = uuid_to_bin(beer_id),
+    beer_order_id = uuid_to_bin(beer_order_id);
+update beer_order_shipment
+set id            = uuid_to_bin(id),
+    beer_order_id = uuid_to_bin(beer_order_id);
+
+alter table beer modify id binary(16) not null;
+alter table customer modify id binary(16) not null;
+alter table category modify id binary(16) not null;
+alter table beer_category
+    modify beer_id binary(16) not null,
+    modify category_id binary(16) not null;
+alter table beer_order
+    modify id binary(16) not null,
+    modify customer_id binary(16),
+    modify beer_order_shipment_id binary(16);
+alter table beer_order_line
+    modify id binary(16) not null,
+    modify beer_id binary(16),
+    modify beer_order_id binary(16);
+alter table beer_order_shipment
+    modify id binary(16) not null,
+    modify beer_order_id binary(16);
+
+alter table beer_order
+    add constraint beer_order_ibfk_1 foreign key (customer_id) references customer (id),
+    add constraint bos_shipment_fk foreign key (beer_order_shipment_id) references beer_order_shipment (id);
+
+alter table beer_order_line
+    add constraint beer_order_line_ibfk_1 foreign key (beer_order_id) references beer_order (id),
+    add constraint beer_order_line_ibfk_2 foreign key (beer_id) references beer (id);
+
+alter table beer_category
+    add constraint pc_beer_id_fk foreign key (beer_id) references beer (id),
+    add constraint pc_category_id_fk foreign key (category_id) references category (id);
+
+alter table beer_order_shipment
+    add constraint bos_pk foreign key (beer_order_id) references beer_order (id);
@@ -0,0 +1,13 @@
+-- (beer_name, id) is the sort of the paged and keyset listings;
+-- (beer_style, beer_name) serves style filters sorted by name and also covers plain beer_style lookups
+create index idx_beer_name on beer (beer_name, id);
+create index idx_beer_style_name on beer (beer_style, beer_name);
+create index idx_beer_upc on beer (upc);
+
+create index idx_customer_name on customer (name, id);
+create index idx_customer_email on customer (email);
+
+-- replaces the index InnoDB created for the customer_id foreign key, and also orders a customer's orders by date
+create index idx_beer_order_customer_created on beer_order (customer_id, created_date);
+
+create index idx_beer_order_shipment_tracking_number on beer_order_shipment (tracking_number);
@@ -0,0 +1,9 @@
+-- customer.name is the keyset sort key and is now required by the API; give any nameless row a visible
+-- placeholder (its email if it has one) before the column becomes not null
+update customer
+set name = coalesce(nullif(trim(email), ''), 'Unnamed customer')
+where name is null
+   or trim(name) = '';
+
+alter table customer
+    modify name varchar(255) not null;
@@ -0,0 +1,6 @@
+-- set on lines allocated by the inventory ledger until its flush takes their stock from the beer row,
+-- so reservations committed with an order survive a restart and are replayed on startup
+alter table beer_order_line
+    add column stock_pending bit not null default 0;
+
+create index idx_beer_order_line_stock_pending on beer_order_line (stock_pending, beer_id);
@@ -0,0 +1,68 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.service.BeerCsvService;
+import com.wchamara.spring6restmvc.service.BeerCsvServiceImpl;
+import com.wchamara.spring6restmvc.service.BeerImportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerCsvBenchmark {
+
+    BeerCsvService beerCsvService = new BeerCsvServiceImpl();
+
+    File file;
+    String[] styles;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+        styles = beerCsvService.convertCsv(file).stream()
+                .map(BeerCSVRecord::getStyle)
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    public List<BeerCSVRecord> convertCsv() {
+        return beerCsvService.convertCsv(file);
+    }
+
+    @Benchmark
+    public long streamCsv() {
+        try (Stream<BeerCSVRecord> records = beerCsvService.streamCsv(file)) {
+            return records.count();
+        }
+    }
+
+    /**
+     * Maps every style in beers.csv, so reported time is per catalog, not per row.
+     */
+    @Benchmark
+    public void toBeerStyle(Blackhole blackhole) {
+        for (String style : styles) {
+            blackhole.consume(BeerImportServiceImpl.toBeerStyle(style));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.service.BeerServiceImplJPA;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-request work of the beer listing outside the database: page request building and JSON serialization of a page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeerListingBenchmark {
+
+    @Param({"25", "100"})
+    int pageSize;
+
+    // buildPageRequest touches none of the collaborators
+    BeerServiceImplJPA beerService = new BeerServiceImplJPA(null, null, null, null, null);
+
+    ObjectMapper objectMapper;
+    Page<BeerDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<BeerDTO> beers = IntStream.range(0, pageSize)
+                .mapToObj(i -> BeerDTO.builder()
+                        .id(UUID.randomUUID())
+                        .version(1)
+                        .beerName("Beer " + i)
+                        .beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+                        .upc(String.valueOf(100000 + i))
+                        .quantityOnHand(i)
+                        .price(new BigDecimal("12.99"))
+                        .createdDate(LocalDateTime.now())
+                        .updatedDate(LocalDateTime.now())
+                        .build())
+                .toList();
+        page = new PageImpl<>(beers, PageRequest.of(0, pageSize), 2410);
+    }
+
+    @Benchmark
+    public PageRequest buildPageRequest() {
+        return beerService.buildPageRequest(3, pageSize);
+    }
+
+    @Benchmark
+    public String serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+}
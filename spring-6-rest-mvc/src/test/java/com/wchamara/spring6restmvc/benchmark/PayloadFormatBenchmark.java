@@ -0,0 +1,95 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding a page of beers and decoding its content as JSON, CBOR and Smile, with mappers built the way
+ * {@code BinaryFormatsConfig} builds them. The encoded size of the page is printed for each format.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=PayloadFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"25", "100"})
+    int pageSize;
+
+    ObjectMapper objectMapper;
+    JavaType beerListType;
+    Page<BeerDTO> page;
+    byte[] encodedPage;
+    byte[] encodedContent;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        beerListType = objectMapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class);
+
+        List<BeerDTO> beers = IntStream.range(0, pageSize)
+                .mapToObj(i -> BeerDTO.builder()
+                        .id(UUID.randomUUID())
+                        .version(1)
+                        .beerName("Beer " + i)
+                        .beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+                        .upc(String.valueOf(100000 + i))
+                        .quantityOnHand(i)
+                        .price(new BigDecimal("12.99"))
+                        .createdDate(LocalDateTime.now())
+                        .updatedDate(LocalDateTime.now())
+                        .build())
+                .toList();
+        page = new PageImpl<>(beers, PageRequest.of(0, pageSize), 2410);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        encodedContent = objectMapper.writeValueAsBytes(beers);
+
+        System.out.printf("%n%s page of %d: %,d bytes%n", format, pageSize, encodedPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<BeerDTO> decodeContent() throws IOException {
+        return objectMapper.readValue(encodedContent, beerListType);
+    }
+}
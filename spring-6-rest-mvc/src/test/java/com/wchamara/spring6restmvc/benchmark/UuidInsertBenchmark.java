@@ -0,0 +1,115 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import com.wchamara.spring6restmvc.entities.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Batched inserts into a growing beer-like table keyed by random (v4) vs time-ordered (v7) UUIDs, in chunks of
+ * 1000 rows like the csv import, on an embedded file-backed H2 database. The table keeps growing over the whole
+ * run, so random keys land all over an ever larger primary key index while time-ordered keys are appended at its
+ * end. Its size with indexes per row is printed at the end.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=UuidInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidInsertBenchmark {
+
+    static final int CHUNK_SIZE = 1000;
+
+    @Param({"random", "time-ordered"})
+    String idStrategy;
+
+    @Param({"varchar(36)", "binary(16)"})
+    String keyType;
+
+    Path directory;
+    Connection connection;
+    PreparedStatement insert;
+    Supplier<UUID> ids;
+    long rows;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator();
+        ids = idStrategy.equals("random") ? UUID::randomUUID : generator::next;
+
+        directory = Files.createTempDirectory("uuid-insert");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db"));
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table beer (id " + keyType + " not null primary key, beer_name varchar(50) not null,"
+                    + " upc varchar(255) not null, price decimal(38, 2) not null)");
+        }
+        insert = connection.prepareStatement("insert into beer (id, beer_name, upc, price) values (?, ?, ?, 12.99)");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("checkpoint");
+            try (ResultSet resultSet = statement.executeQuery("select disk_space_used('BEER')")) {
+                resultSet.next();
+                long bytes = resultSet.getLong(1);
+                System.out.printf("%n%s %s: %,d rows, %,d bytes with indexes, %d bytes per row%n", idStrategy, keyType,
+                        rows, bytes, bytes / rows);
+            }
+        }
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * One chunk of the import, committed.
+     */
+    @Benchmark
+    public long insertChunk() throws SQLException {
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            UUID id = ids.get();
+            if (keyType.startsWith("binary")) {
+                insert.setBytes(1, ByteBuffer.allocate(16)
+                        .putLong(id.getMostSignificantBits())
+                        .putLong(id.getLeastSignificantBits())
+                        .array());
+            } else {
+                insert.setString(1, id.toString());
+            }
+            insert.setString(2, "Beer " + rows);
+            insert.setString(3, Long.toString(rows++));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+        return rows;
+    }
+}
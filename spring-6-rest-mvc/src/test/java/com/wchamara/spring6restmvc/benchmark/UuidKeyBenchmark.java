@@ -0,0 +1,175 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins through {@code beer_category} with UUID keys stored as {@code varchar(36)} vs {@code binary(16)}, on an
+ * embedded file-backed H2 database with the same tables and keys as the Flyway schema. The size of each table
+ * with its indexes is printed once the data is loaded.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=UuidKeyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidKeyBenchmark {
+
+    static final int CATEGORIES = 50;
+    static final int CATEGORIES_PER_BEER = 3;
+
+    @Param({"varchar(36)", "binary(16)"})
+    String keyType;
+
+    @Param("50000")
+    int beers;
+
+    Path directory;
+    Connection connection;
+    PreparedStatement categoriesOfBeer;
+    PreparedStatement beersOfCategory;
+    UUID[] beerIds;
+    UUID[] categoryIds;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        // a file database, in memory H2 reports no disk space
+        directory = Files.createTempDirectory("uuid-keys");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table beer (id " + keyType + " not null primary key, beer_name varchar(50) not null)");
+            statement.execute("create table category (id " + keyType + " not null primary key, description varchar(50))");
+            statement.execute("create table beer_category (beer_id " + keyType + " not null, category_id " + keyType + " not null,"
+                    + " primary key (beer_id, category_id),"
+                    + " foreign key (beer_id) references beer (id), foreign key (category_id) references category (id))");
+        }
+
+        categoryIds = insert("insert into category (id, description) values (?, ?)", CATEGORIES);
+        beerIds = insert("insert into beer (id, beer_name) values (?, ?)", beers);
+        try (PreparedStatement insert = connection.prepareStatement("insert into beer_category (beer_id, category_id) values (?, ?)")) {
+            for (int i = 0; i < beerIds.length; i++) {
+                for (int c = 0; c < CATEGORIES_PER_BEER; c++) {
+                    bind(insert, 1, beerIds[i]);
+                    bind(insert, 2, categoryIds[(i + c) % CATEGORIES]);
+                    insert.addBatch();
+                }
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("checkpoint");
+        }
+        for (String table : new String[]{"BEER", "CATEGORY", "BEER_CATEGORY"}) {
+            System.out.printf("%n%s %s: %,d bytes with indexes%n", keyType, table, diskSpaceUsed(table));
+        }
+
+        categoriesOfBeer = connection.prepareStatement("select c.id, c.description from beer_category bc"
+                + " join category c on c.id = bc.category_id where bc.beer_id = ?");
+        beersOfCategory = connection.prepareStatement("select count(*) from beer_category bc"
+                + " join beer b on b.id = bc.beer_id where bc.category_id = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * One beer with its categories, the shape of the {@code Beer.categories} entity graph.
+     */
+    @Benchmark
+    public int categoriesOfBeer() throws SQLException {
+        bind(categoriesOfBeer, 1, beerIds[ThreadLocalRandom.current().nextInt(beerIds.length)]);
+        return count(categoriesOfBeer);
+    }
+
+    /**
+     * Every beer of one category, a join touching a few thousand keys.
+     */
+    @Benchmark
+    public int beersOfCategory() throws SQLException {
+        bind(beersOfCategory, 1, categoryIds[ThreadLocalRandom.current().nextInt(categoryIds.length)]);
+        try (ResultSet resultSet = beersOfCategory.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private UUID[] insert(String sql, int rows) throws SQLException {
+        UUID[] ids = new UUID[rows];
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                ids[i] = UUID.randomUUID();
+                bind(insert, 1, ids[i]);
+                insert.setString(2, "Row " + i);
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return ids;
+    }
+
+    private void bind(PreparedStatement statement, int index, UUID id) throws SQLException {
+        if (keyType.startsWith("binary")) {
+            statement.setBytes(index, ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array());
+        } else {
+            statement.setString(index, id.toString());
+        }
+    }
+
+    private long diskSpaceUsed(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select disk_space_used('" + table + "')")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,259 @@
+package com.wchamara.spring6restmvc.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.wchamara.spring6restmvc.Spring6RestMvcApplication;
+import com.wchamara.spring6restmvc.controller.BeerController;
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Throughput and p99 latency of the beer API with platform vs virtual request threads, against H2 and a
+ * 5-connection Hikari pool like {@code localmysql}.
+ * <p>
+ * Each mode boots the full application on a random port, then for every concurrency level runs a warm-up
+ * followed by a timed window of closed-loop clients alternating {@code GET /api/v1/beer/{id}} and a page of
+ * {@code GET /api/v1/beer?beerStyle=IPA}. The DTO cache is off so every request reaches the database.
+ * <p>
+ * Run with {@code mvn -Pvirtual-thread-benchmark test-compile exec:exec}. Results are printed and written to
+ * {@code target/virtual-thread-benchmark.csv}; {@code -Djdk.tracePinnedThreads=short} reports any pinning.
+ */
+public class VirtualThreadBenchmark {
+
+    private static final String ISSUER = "http://localhost:9000";
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrencyLevels = Arrays.stream(System.getProperty("benchmark.concurrency", "16,64,256").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        int warmupSeconds = Integer.getInteger("benchmark.warmup-seconds", 5);
+        int measureSeconds = Integer.getInteger("benchmark.measure-seconds", 15);
+
+        // devtools is on the test classpath and only honours this as a system property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        KeyPair keyPair = rsaKeyPair();
+        Path publicKey = writePublicKey(keyPair);
+        String token = signToken(keyPair);
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtualThreads, publicKey)) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                List<UUID> beerIds = context.getBean(BeerRepository.class).findAll(PageRequest.of(0, 1000)).stream()
+                        .map(Beer::getId)
+                        .toList();
+
+                for (int concurrency : concurrencyLevels) {
+                    Workload workload = new Workload(port, token, beerIds);
+                    workload.run(concurrency, warmupSeconds);
+                    Result result = workload.run(concurrency, measureSeconds).toResult(virtualThreads ? "virtual" : "platform", concurrency);
+                    results.add(result);
+                    System.out.println(result.toRow());
+                }
+            }
+        }
+
+        writeReport(results);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, Path publicKey) {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // command line arguments, so they win over application.properties
+        return SpringApplication.run(Spring6RestMvcApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.hikari.maximum-pool-size=5",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=",
+                "--spring.security.oauth2.resourceserver.jwt.public-key-location=file:" + publicKey.toAbsolutePath(),
+                "--spring.docker.compose.enabled=false",
+                "--beer.dto-cache.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.wchamara.spring6restmvc=WARN");
+    }
+
+    private static void writeReport(List<Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("mode,concurrency,requests,errors,throughput_per_sec,p50_ms,p99_ms");
+        results.forEach(result -> lines.add(result.toCsv()));
+
+        Path report = Path.of("target", "virtual-thread-benchmark.csv");
+        Files.createDirectories(report.getParent());
+        Files.write(report, lines);
+
+        System.out.println();
+        System.out.printf("%-9s %11s %10s %7s %12s %9s %9s%n", "mode", "concurrency", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        results.forEach(result -> System.out.println(result.toRow()));
+        System.out.println("Written to " + report.toAbsolutePath());
+    }
+
+    private static KeyPair rsaKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static Path writePublicKey(KeyPair keyPair) throws IOException {
+        Path pem = Files.createTempFile("benchmark-jwt-", ".pem");
+        pem.toFile().deleteOnExit();
+        Files.writeString(pem, "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n");
+        return pem;
+    }
+
+    private static String signToken(KeyPair keyPair) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("benchmark-client")
+                .issuer(ISSUER)
+                .claim("scope", "message:read")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .build();
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+        return jwt.serialize();
+    }
+
+    private record Workload(int port, String token, List<UUID> beerIds) {
+
+        Measurement run(int concurrency, int seconds) throws Exception {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+            // virtual client threads, so the client side never becomes the bottleneck
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Measurement>> futures = new ArrayList<>(concurrency);
+                for (int i = 0; i < concurrency; i++) {
+                    futures.add(clients.submit(() -> loop(client, deadline)));
+                }
+
+                Measurement total = new Measurement();
+                for (Future<Measurement> future : futures) {
+                    total.add(future.get());
+                }
+                total.seconds = seconds;
+                return total;
+            }
+        }
+
+        private Measurement loop(HttpClient client, long deadline) {
+            Measurement measurement = new Measurement();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            while (System.nanoTime() < deadline) {
+                String path = random.nextBoolean()
+                        ? BeerController.BEER_PATH + "/" + beerIds.get(random.nextInt(beerIds.size()))
+                        : BeerController.BEER_PATH + "?beerStyle=IPA&pageSize=25&pageNumber=" + (1 + random.nextInt(10));
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build();
+
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    measurement.record(System.nanoTime() - start, response.statusCode() == 200);
+                } catch (IOException e) {
+                    measurement.record(System.nanoTime() - start, false);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return measurement;
+        }
+    }
+
+    private static final class Measurement {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private int seconds;
+
+        void record(long latencyNanos, boolean success) {
+            if (!success) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        void add(Measurement other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Result toResult(String mode, int concurrency) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Result(mode, concurrency, count, errors, (double) count / seconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000d;
+        }
+    }
+
+    private record Result(String mode, int concurrency, long requests, long errors, double throughput,
+                          double p50Millis, double p99Millis) {
+
+        String toRow() {
+            return String.format("%-9s %11d %10d %7d %12.1f %9.2f %9.2f", mode, concurrency, requests, errors,
+                    throughput, p50Millis, p99Millis);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f", mode, concurrency, requests, errors,
+                    throughput, p50Millis, p99Millis);
+        }
+    }
+}
@@ -2,18 +2,23 @@ package com.wchamara.spring6restmvc.bootstrap;
 
 import com.wchamara.spring6restmvc.repositories.BeerRepository;
 import com.wchamara.spring6restmvc.repositories.CustomerRepository;
-import com.wchamara.spring6restmvc.service.BeerCsvService;
 import com.wchamara.spring6restmvc.service.BeerCsvServiceImpl;
+import com.wchamara.spring6restmvc.service.BeerImportService;
+import com.wchamara.spring6restmvc.service.BeerImportServiceImpl;
+import com.wchamara.spring6restmvc.service.BeerNameIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 @DataJpaTest
-@Import(BeerCsvServiceImpl.class)
+@Import({BeerImportServiceImpl.class, BeerCsvServiceImpl.class, BeerNameIndex.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
 class InitDataTest {
     @Autowired
     BeerRepository beerRepository;
@@ -22,13 +27,13 @@ class InitDataTest {
     CustomerRepository customerRepository;
 
     @Autowired
-    BeerCsvService csvService;
+    BeerImportService beerImportService;
 
     InitData bootstrapData;
 
     @BeforeEach
     void setUp() {
-        bootstrapData = new InitData(beerRepository, customerRepository, csvService);
+        bootstrapData = new InitData(beerRepository, customerRepository, beerImportService);
     }
 
     @Test
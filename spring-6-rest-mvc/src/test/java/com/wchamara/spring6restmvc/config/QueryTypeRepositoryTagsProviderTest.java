@@ -0,0 +1,30 @@
+package com.wchamara.spring6restmvc.config;
+
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryTypeRepositoryTagsProviderTest {
+
+    @Test
+    void queryTypeFollowsReturnTypeAndMethodName() throws NoSuchMethodException {
+        assertThat(queryType("findAllBeerDtos", boolean.class, Pageable.class)).isEqualTo("page");
+        assertThat(queryType("findBeerDtoSlice", boolean.class, Pageable.class)).isEqualTo("slice");
+        assertThat(queryType("scrollBeerDtos", String.class, UUID.class, boolean.class, Limit.class)).isEqualTo("scroll");
+        assertThat(queryType("streamBeerDtos", boolean.class)).isEqualTo("stream");
+        assertThat(queryType("findVersionById", UUID.class)).isEqualTo("read");
+        assertThat(queryType("count")).isEqualTo("count");
+        assertThat(queryType("existsById", Object.class)).isEqualTo("exists");
+        assertThat(queryType("deleteById", Object.class)).isEqualTo("delete");
+        assertThat(queryType("save", Object.class)).isEqualTo("write");
+    }
+
+    private static String queryType(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return QueryTypeRepositoryTagsProvider.queryType(BeerRepository.class.getMethod(name, parameterTypes));
+    }
+}
@@ -0,0 +1,61 @@
+package com.wchamara.spring6restmvc.config;
+
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.service.BeerService;
+import com.wchamara.spring6restmvc.service.BeerServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceMetricsAspectTest {
+
+    SimpleMeterRegistry meterRegistry;
+    BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BeerServiceImpl());
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void successfulCallsAreTimedPerMethod() {
+        beerService.getBeerById(UUID.randomUUID());
+        beerService.getBeerById(UUID.randomUUID());
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("service", "BeerService", "method", "getBeerById", "outcome", "SUCCESS", "exception", "none")
+                .timer();
+
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedCallsAreTimedWithTheExceptionTag() {
+        assertThatThrownBy(() -> beerService.saveNewBeer(null)).isInstanceOf(NullPointerException.class);
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("method", "saveNewBeer", "outcome", "ERROR", "exception", "NullPointerException")
+                .timer();
+
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void outcomesGetSeparateTimers() {
+        beerService.saveNewBeer(BeerDTO.builder().beerName("Galaxy Cat").build());
+        assertThatThrownBy(() -> beerService.saveNewBeer(null)).isInstanceOf(NullPointerException.class);
+
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME).tag("method", "saveNewBeer").timers()).hasSize(2);
+    }
+}
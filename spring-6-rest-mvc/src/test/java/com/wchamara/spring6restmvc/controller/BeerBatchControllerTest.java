@@ -0,0 +1,87 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.config.SpringSecurityConfig;
+import com.wchamara.spring6restmvc.model.BeerBatchAction;
+import com.wchamara.spring6restmvc.model.BeerBatchItemResult;
+import com.wchamara.spring6restmvc.model.BeerBatchItemStatus;
+import com.wchamara.spring6restmvc.model.BeerBatchOperation;
+import com.wchamara.spring6restmvc.service.BeerBatchService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.wchamara.spring6restmvc.controller.BeerControllerTest.JWT_REQUEST_POST_PROCESSOR;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BeerBatchController.class)
+@Import(SpringSecurityConfig.class)
+class BeerBatchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    BeerBatchService beerBatchService;
+
+    @Captor
+    ArgumentCaptor<List<BeerBatchOperation>> operationsCaptor;
+
+    @Test
+    void executeBatchReturnsItemResults() throws Exception {
+        UUID id = UUID.randomUUID();
+        given(beerBatchService.execute(anyList())).willReturn(List.of(BeerBatchItemResult.builder()
+                .index(0)
+                .action(BeerBatchAction.DELETE)
+                .id(id)
+                .status(BeerBatchItemStatus.DELETED)
+                .build()));
+
+        mockMvc.perform(post(BeerBatchController.BEER_BATCH_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                BeerBatchOperation.builder().action(BeerBatchAction.DELETE).id(id).build()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[0].id").value(id.toString()));
+
+        verify(beerBatchService).execute(operationsCaptor.capture());
+        assertThat(operationsCaptor.getValue().get(0).getId()).isEqualTo(id);
+    }
+
+    @Test
+    void executeBatchRejectsTooManyOperations() throws Exception {
+        String body = objectMapper.writeValueAsString(Collections.nCopies(BeerBatchController.MAX_OPERATIONS + 1,
+                BeerBatchOperation.builder().action(BeerBatchAction.DELETE).id(UUID.randomUUID()).build()));
+
+        mockMvc.perform(post(BeerBatchController.BEER_BATCH_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verify(beerBatchService, never()).execute(any());
+    }
+}
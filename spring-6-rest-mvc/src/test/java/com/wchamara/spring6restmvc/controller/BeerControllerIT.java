@@ -3,6 +3,7 @@ package com.wchamara.spring6restmvc.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wchamara.spring6restmvc.entities.Beer;
 import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.CursorPage;
 import com.wchamara.spring6restmvc.model.BeerStyle;
 import com.wchamara.spring6restmvc.repositories.BeerRepository;
 import jakarta.transaction.Transactional;
@@ -11,25 +12,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Map;
 import java.util.UUID;
 
 import static com.wchamara.spring6restmvc.controller.BeerControllerTest.JWT_REQUEST_POST_PROCESSOR;
+import static org.hamcrest.Matchers.hasItem;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,6 +54,8 @@ class BeerControllerIT {
     WebApplicationContext webApplicationContext;
     @Autowired
     private BeerRepository beerRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
 
     @BeforeEach
     void setUp() {
@@ -128,6 +139,44 @@ class BeerControllerIT {
     }
 
 
+    @Test
+    void nameSearchPagesInTheSameOrderAsTheDatabase() {
+        Page<BeerDTO> fromIndex = beerController.listAllBeers("IPA", true, null, 25, 3);
+        Page<BeerDTO> fromDatabase = beerRepository.findBeerDtosByBeerName("%IPA%", true,
+                PageRequest.of(2, 25, Sort.by("beerName")));
+
+        assertThat(fromIndex.getTotalElements()).isEqualTo(fromDatabase.getTotalElements());
+        assertThat(fromIndex.getContent().stream().map(BeerDTO::getBeerName).toList())
+                .isEqualTo(fromDatabase.getContent().stream().map(BeerDTO::getBeerName).toList());
+    }
+
+    @Test
+    void listBeerSliceByName() throws Exception {
+        mockMvc.perform(
+                        get(BeerController.BEER_PATH)
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .queryParam("slice", "true")
+                                .queryParam("beerName", "IPA")
+                                .queryParam("pageNumber", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(25))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void listBeersByCursorSeeksPastTheLastBeer() {
+        CursorPage<BeerDTO> first = beerController.listBeersByCursor("IPA", false, null, 10, null);
+        CursorPage<BeerDTO> second = beerController.listBeersByCursor("IPA", false, null, 10, first.getNextCursor());
+
+        assertEquals(10, first.getContent().size());
+        assertEquals(10, second.getContent().size());
+        assertThat(first.getContent().stream().map(BeerDTO::getId).noneMatch(id -> second.getContent().stream()
+                .anyMatch(beerDTO -> beerDTO.getId().equals(id)))).isTrue();
+        assertThat(second.getContent().get(0).getBeerName().compareTo(first.getContent().get(9).getBeerName()) >= 0).isTrue();
+        assertThat(second.getContent().stream().allMatch(beerDTO -> beerDTO.getQuantityOnHand() == null)).isTrue();
+    }
+
     @Test
     void testListAllBeers() {
         Page<BeerDTO> beerDTOS = beerController.listAllBeers(null, false, null, 25, 1);
@@ -146,13 +195,48 @@ class BeerControllerIT {
 
     @Test
     void getBeerById() {
-        BeerDTO beerDTO = beerController.getBeerById(beerRepository.findAll().get(0).getId());
+        BeerDTO beerDTO = beerController.getBeerById(beerRepository.findAll().get(0).getId(), new ServletWebRequest(new MockHttpServletRequest())).getBody();
         assertThat(beerDTO).isNotNull();
     }
 
+    @Test
+    void getBeerByIdSeesWritesMadeOutsideTheService() {
+        Beer beer = beerRepository.findAll().get(0);
+        String beerName = beer.getBeerName();
+        beerController.getBeerById(beer.getId(), new ServletWebRequest(new MockHttpServletRequest()));
+
+        jdbcTemplate.update("update beer set beer_name = ?, version = version + 1 where id = ?", "Renamed in SQL", beer.getId().toString());
+        try {
+            BeerDTO beerDTO = beerController.getBeerById(beer.getId(), new ServletWebRequest(new MockHttpServletRequest())).getBody();
+
+            assertThat(beerDTO.getBeerName()).isEqualTo("Renamed in SQL");
+            assertThat(beerDTO.getVersion()).isEqualTo(beer.getVersion() + 1);
+        } finally {
+            jdbcTemplate.update("update beer set beer_name = ? where id = ?", beerName, beer.getId().toString());
+        }
+    }
+
+    @Test
+    void getBeerByIdNotModifiedWhenETagMatches() throws Exception {
+        Beer beer = beerRepository.findAll().get(0);
+
+        String eTag = mockMvc.perform(get(BeerController.BEER_PATH_ID, beer.getId())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + beer.getId() + "-" + beer.getVersion() + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, beer.getId())
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
     @Test
     void beerByIdNotFound() {
-        assertThrows(NotFoundException.class, () -> beerController.getBeerById(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> beerController.getBeerById(UUID.randomUUID(), new ServletWebRequest(new MockHttpServletRequest())));
     }
 
     @Test
@@ -181,7 +265,7 @@ class BeerControllerIT {
     @Rollback
     void testUpdateBeer() {
 
-        BeerDTO beerDTO = beerController.getBeerById(beerRepository.findAll().get(0).getId());
+        BeerDTO beerDTO = beerController.getBeerById(beerRepository.findAll().get(0).getId(), new ServletWebRequest(new MockHttpServletRequest())).getBody();
         beerDTO.setBeerName("Updated Beer");
         ResponseEntity responseEntity = beerController.updateBeer(beerDTO.getId(), beerDTO);
 
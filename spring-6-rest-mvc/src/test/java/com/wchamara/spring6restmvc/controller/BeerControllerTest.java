@@ -1,9 +1,11 @@
 package com.wchamara.spring6restmvc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.config.BinaryFormatsConfig;
 import com.wchamara.spring6restmvc.config.SpringSecurityConfig;
 import com.wchamara.spring6restmvc.model.BeerDTO;
-import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.BeerExportFormat;
+import com.wchamara.spring6restmvc.service.BeerExportService;
 import com.wchamara.spring6restmvc.service.BeerService;
 import com.wchamara.spring6restmvc.service.BeerServiceImpl;
 import org.junit.jupiter.api.Test;
@@ -13,11 +15,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,8 +32,14 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,7 +47,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 //@SpringBootTest
 @WebMvcTest(BeerController.class)
-@Import(SpringSecurityConfig.class)
+@Import({SpringSecurityConfig.class, BinaryFormatsConfig.class})
 class BeerControllerTest {
     @Autowired
     MockMvc mockMvc;
@@ -42,6 +55,9 @@ class BeerControllerTest {
     @MockBean
     BeerService beerService;
 
+    @MockBean
+    BeerExportService beerExportService;
+
     @Captor
     ArgumentCaptor<UUID> uuidArgumentCaptor;
 
@@ -53,6 +69,8 @@ class BeerControllerTest {
 
     BeerServiceImpl beerServiceImpl = new BeerServiceImpl();
 
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
 
     public static final SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor JWT_REQUEST_POST_PROCESSOR = jwt().jwt(jwt -> {
                 jwt.claims(claims -> {
@@ -65,8 +83,9 @@ class BeerControllerTest {
 
     @Test
     void getBeerByIdReturnsBeer() throws Exception {
-        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(0);
-        given(beerService.getBeerById(any(UUID.class))).willReturn(Optional.of(beerDTO));
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        given(beerService.getBeerVersion(beerDTO.getId())).willReturn(Optional.of(beerDTO.getVersion()));
+        given(beerService.getBeerById(beerDTO.getId(), beerDTO.getVersion())).willReturn(Optional.of(beerDTO));
 
 
         mockMvc.perform(
@@ -84,14 +103,74 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.price").value(beerDTO.getPrice().toString()))
                 .andExpect(jsonPath("$.createdDate").exists())
                 .andExpect(jsonPath("$.updatedDate").exists());
-        ;
+
+        // the version is looked up once, for the ETag and for the cached beer alike
+        verify(beerService, times(1)).getBeerVersion(beerDTO.getId());
+        verify(beerService, never()).getBeerById(any(UUID.class));
+    }
+
+
+    @Test
+    void getBeerByIdAsCbor() throws Exception {
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        given(beerService.getBeerVersion(beerDTO.getId())).willReturn(Optional.of(beerDTO.getVersion()));
+        given(beerService.getBeerById(beerDTO.getId(), beerDTO.getVersion())).willReturn(Optional.of(beerDTO));
+
+        MvcResult result = mockMvc.perform(
+                        get(BeerController.BEER_PATH_ID, beerDTO.getId())
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .accept(MediaType.APPLICATION_CBOR)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + beerDTO.getId() + "-" + beerDTO.getVersion() + "\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        BeerDTO decoded = Jackson2ObjectMapperBuilder.cbor().build()
+                .readValue(result.getResponse().getContentAsByteArray(), BeerDTO.class);
+        assertThat(decoded.getId()).isEqualTo(beerDTO.getId());
+        assertThat(decoded.getPrice()).isEqualByComparingTo(beerDTO.getPrice());
+        assertThat(decoded.getCreatedDate()).isEqualTo(beerDTO.getCreatedDate());
+    }
+
+    @Test
+    void getBeerByIdNotModifiedSkipsLoadingBeer() throws Exception {
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        given(beerService.getBeerVersion(beerDTO.getId())).willReturn(Optional.of(beerDTO.getVersion()));
+
+        mockMvc.perform(
+                        get(BeerController.BEER_PATH_ID, beerDTO.getId())
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .header(HttpHeaders.IF_NONE_MATCH, "W/\"" + beerDTO.getId() + "-" + beerDTO.getVersion() + "\"")
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        verify(beerService, never()).getBeerById(any(UUID.class), anyInt());
     }
 
+    @Test
+    void getBeerByIdReturnsBodyWhenETagIsStale() throws Exception {
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        given(beerService.getBeerVersion(beerDTO.getId())).willReturn(Optional.of(beerDTO.getVersion()));
+        given(beerService.getBeerById(beerDTO.getId(), beerDTO.getVersion())).willReturn(Optional.of(beerDTO));
+
+        mockMvc.perform(
+                        get(BeerController.BEER_PATH_ID, beerDTO.getId())
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + beerDTO.getId() + "-0\"")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + beerDTO.getId() + "-" + beerDTO.getVersion() + "\""))
+                .andExpect(jsonPath("$.id").value(beerDTO.getId().toString()));
+    }
 
     @Test
     void getBeerByIdWillReturnNotFoundException() throws Exception {
 
-        given(beerService.getBeerById(any(UUID.class))).willReturn(Optional.empty());
+        given(beerService.getBeerVersion(any(UUID.class))).willReturn(Optional.empty());
 
 
         mockMvc.perform(
@@ -105,7 +184,7 @@ class BeerControllerTest {
 
     @Test
     void listAllBeersReturnsListOfBeers() throws Exception {
-        given(beerService.listAllBeers(any(), any(), any(), any(), any())).willReturn(beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25));
+        given(beerService.listAllBeers(any(), any(), any(), any(), any())).willReturn(beerServiceImpl.listAllBeers(null, true, null, 1, 25));
 
         mockMvc.perform(
                         get(
@@ -125,13 +204,41 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.content[0].updatedDate").exists());
     }
 
+    @Test
+    void listBeersByCursorReturnsNextCursor() throws Exception {
+        given(beerService.scrollBeers(any(), any(), any(), any(), any())).willReturn(beerServiceImpl.scrollBeers(null, false, null, null, 2));
+
+        mockMvc.perform(
+                        get(BeerController.BEER_PATH)
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .queryParam("cursor", "")
+                                .queryParam("pageSize", "2")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void listBeersByCursorRejectsInvalidCursor() throws Exception {
+        mockMvc.perform(
+                        get(BeerController.BEER_PATH)
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .queryParam("cursor", "not-a-cursor")
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void saveNewBeerReturnsCreated() throws Exception {
-        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(0);
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
         beerDTO.setId(null);
         beerDTO.setVersion(null);
 
-        given(beerService.saveNewBeer(any())).willReturn(beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(1));
+        given(beerService.saveNewBeer(any())).willReturn(beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(1));
 
         mockMvc.perform(
                         post(BeerController.BEER_PATH)
@@ -145,12 +252,33 @@ class BeerControllerTest {
 
     }
 
+    @Test
+    void saveNewBeerFromSmile() throws Exception {
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        beerDTO.setId(null);
+        beerDTO.setVersion(null);
+
+        given(beerService.saveNewBeer(any())).willReturn(beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(1));
+
+        mockMvc.perform(
+                        post(BeerController.BEER_PATH)
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .contentType(SMILE)
+                                .content(Jackson2ObjectMapperBuilder.smile().build().writeValueAsBytes(beerDTO))
+                )
+                .andExpect(status().isCreated());
+
+        verify(beerService).saveNewBeer(beerArgumentCaptor.capture());
+        assertThat(beerArgumentCaptor.getValue().getBeerName()).isEqualTo(beerDTO.getBeerName());
+        assertThat(beerArgumentCaptor.getValue().getPrice()).isEqualByComparingTo(beerDTO.getPrice());
+    }
+
     @Test
     void testCreateNewBeerNullBeerName() throws Exception {
         BeerDTO beerDTO = BeerDTO.builder().build();
 
 
-        given(beerService.saveNewBeer(any())).willReturn(beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(1));
+        given(beerService.saveNewBeer(any())).willReturn(beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(1));
 
         ResultActions resultActions = mockMvc.perform(
                         post(BeerController.BEER_PATH)
@@ -167,7 +295,7 @@ class BeerControllerTest {
 
     @Test
     void updateBeerReturnsNoContent() throws Exception {
-        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(0);
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
         given(beerService.updateBeer(any(), any())).willReturn(Optional.of(beerDTO));
 
 
@@ -184,7 +312,7 @@ class BeerControllerTest {
 
     @Test
     void deleteBeerReturnsNoContent() throws Exception {
-        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(0);
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
         given(beerService.getBeerById(any(UUID.class))).willReturn(Optional.of(beerDTO));
 
         mockMvc.perform(
@@ -198,9 +326,31 @@ class BeerControllerTest {
         assertThat(uuidArgumentCaptor.getValue()).isEqualTo(beerDTO.getId());
     }
 
+    @Test
+    void exportBeersStreamsCsv() throws Exception {
+        willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id,beerName\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(beerExportService).exportBeers(eq(BeerExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        get(BeerController.BEER_EXPORT_PATH)
+                                .with(JWT_REQUEST_POST_PROCESSOR)
+                                .queryParam("format", "CSV")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beers.csv"))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,beerName\n"));
+    }
+
     @Test
     void patchBeerReturnsNoContent() throws Exception {
-        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, false, BeerStyle.ALE, 1, 25).getContent().get(0);
+        BeerDTO beerDTO = beerServiceImpl.listAllBeers(null, true, null, 1, 25).getContent().get(0);
 
         Map<String, Object> beerMap = new HashMap<>();
 
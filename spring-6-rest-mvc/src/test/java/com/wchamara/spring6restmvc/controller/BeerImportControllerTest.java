@@ -0,0 +1,110 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.wchamara.spring6restmvc.config.SpringSecurityConfig;
+import com.wchamara.spring6restmvc.model.BeerImportJobDTO;
+import com.wchamara.spring6restmvc.model.BeerImportStatus;
+import com.wchamara.spring6restmvc.service.BeerImportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.wchamara.spring6restmvc.controller.BeerControllerTest.JWT_REQUEST_POST_PROCESSOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BeerImportController.class)
+@Import(SpringSecurityConfig.class)
+class BeerImportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BeerImportJobService beerImportJobService;
+
+    MockMultipartFile csv = new MockMultipartFile("file", "beers.csv", "text/csv", "row,beer\n1,Pub Beer\n".getBytes());
+
+    @Test
+    void importBeersReturnsAcceptedJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(beerImportJobService.submit(any(Path.class), eq("beers.csv"))).willReturn(BeerImportJobDTO.builder()
+                .id(jobId)
+                .fileName("beers.csv")
+                .status(BeerImportStatus.QUEUED)
+                .build());
+
+        mockMvc.perform(multipart(BeerImportController.BEER_IMPORT_PATH).file(csv)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", BeerImportController.BEER_IMPORT_PATH + "/" + jobId))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void importBeersWhenQueueIsFull() throws Exception {
+        given(beerImportJobService.submit(any(Path.class), any())).willThrow(new TaskRejectedException("full"));
+
+        mockMvc.perform(multipart(BeerImportController.BEER_IMPORT_PATH).file(csv)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void importBeersDeletesTheUploadWhenSubmitFails() throws Exception {
+        AtomicReference<Path> submitted = new AtomicReference<>();
+        given(beerImportJobService.submit(any(Path.class), any())).willAnswer(invocation -> {
+            submitted.set(invocation.getArgument(0));
+            throw new IllegalStateException("executor shut down");
+        });
+
+        catchThrowable(() -> mockMvc.perform(multipart(BeerImportController.BEER_IMPORT_PATH).file(csv)
+                .with(JWT_REQUEST_POST_PROCESSOR)));
+
+        assertThat(submitted.get()).isNotNull();
+        assertThat(submitted.get()).doesNotExist();
+    }
+
+    @Test
+    void getImportJobReturnsProgress() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(beerImportJobService.getJob(jobId)).willReturn(Optional.of(BeerImportJobDTO.builder()
+                .id(jobId)
+                .status(BeerImportStatus.RUNNING)
+                .rowsProcessed(2000)
+                .rowsRejected(3)
+                .rowsPerSecond(1500.0)
+                .build()));
+
+        mockMvc.perform(get(BeerImportController.BEER_IMPORT_PATH_ID, jobId)
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsProcessed").value(2000))
+                .andExpect(jsonPath("$.rowsRejected").value(3))
+                .andExpect(jsonPath("$.rowsPerSecond").value(1500.0));
+    }
+
+    @Test
+    void getImportJobNotFound() throws Exception {
+        given(beerImportJobService.getJob(any(UUID.class))).willReturn(Optional.empty());
+
+        mockMvc.perform(get(BeerImportController.BEER_IMPORT_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotFound());
+    }
+}
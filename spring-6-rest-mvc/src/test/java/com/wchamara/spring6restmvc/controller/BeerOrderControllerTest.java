@@ -0,0 +1,116 @@
+package com.wchamara.spring6restmvc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.config.SpringSecurityConfig;
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderLineDTO;
+import com.wchamara.spring6restmvc.service.BeerOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.wchamara.spring6restmvc.controller.BeerControllerTest.JWT_REQUEST_POST_PROCESSOR;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BeerOrderController.class)
+@Import(SpringSecurityConfig.class)
+class BeerOrderControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    BeerOrderService beerOrderService;
+
+    BeerOrderDTO beerOrderDTO = BeerOrderDTO.builder()
+            .customerRef("ref-1")
+            .beerOrderLines(List.of(BeerOrderLineDTO.builder().beerId(UUID.randomUUID()).orderQuantity(2).build()))
+            .build();
+
+    @Test
+    void placeOrderReturnsCreatedWithAllocation() throws Exception {
+        UUID id = UUID.randomUUID();
+        BeerOrderLineDTO allocatedLine = BeerOrderLineDTO.builder()
+                .beerId(beerOrderDTO.getBeerOrderLines().get(0).getBeerId())
+                .orderQuantity(2)
+                .quantityAllocated(2)
+                .build();
+        given(beerOrderService.placeOrder(any())).willReturn(BeerOrderDTO.builder()
+                .id(id)
+                .beerOrderLines(List.of(allocatedLine))
+                .build());
+
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerOrderDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", BeerOrderController.BEER_ORDER_PATH + "/" + id))
+                .andExpect(jsonPath("$.beerOrderLines[0].quantityAllocated").value(2));
+    }
+
+    @Test
+    void placeOrderWithoutLinesIsBadRequest() throws Exception {
+        beerOrderDTO.setBeerOrderLines(List.of());
+
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerOrderDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(beerOrderService, never()).placeOrder(any());
+    }
+
+    @Test
+    void placeOrderAboveTheMaximumQuantityIsBadRequest() throws Exception {
+        beerOrderDTO.getBeerOrderLines().get(0).setOrderQuantity(Integer.MAX_VALUE);
+
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerOrderDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(beerOrderService, never()).placeOrder(any());
+    }
+
+    @Test
+    void placeOrderForUnknownBeerIsBadRequest() throws Exception {
+        given(beerOrderService.placeOrder(any())).willThrow(new IllegalArgumentException("Order refers to unknown beers"));
+
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerOrderDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOrderByIdNotFound() throws Exception {
+        given(beerOrderService.getOrderById(any())).willReturn(Optional.empty());
+
+        mockMvc.perform(get(BeerOrderController.BEER_ORDER_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,6 +1,7 @@
 package com.wchamara.spring6restmvc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wchamara.spring6restmvc.config.BinaryFormatsConfig;
 import com.wchamara.spring6restmvc.model.CustomerDTO;
 import com.wchamara.spring6restmvc.service.CustomerService;
 import com.wchamara.spring6restmvc.service.CustomerServiceImpl;
@@ -11,7 +12,10 @@ import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashMap;
@@ -21,14 +25,17 @@ import java.util.UUID;
 
 import static com.wchamara.spring6restmvc.controller.BeerControllerTest.JWT_REQUEST_POST_PROCESSOR;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CustomerController.class)
+@Import(BinaryFormatsConfig.class)
 class CustomerControllerTest {
 
     @MockBean
@@ -53,11 +60,13 @@ class CustomerControllerTest {
 
     @Test
     void testPatchCustomer() throws Exception {
-        CustomerDTO customer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
 
         Map<String, Object> customerMap = new HashMap<>();
         customerMap.put("name", "New Name");
 
+        given(customerService.patchCustomerById(any(), any())).willReturn(Optional.of(customer));
+
         mockMvc.perform(patch(CustomerController.CUSTOMER_PATH_ID, customer.getId())
                         .with(JWT_REQUEST_POST_PROCESSOR)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -74,7 +83,7 @@ class CustomerControllerTest {
 
     @Test
     void testDeleteCustomer() throws Exception {
-        CustomerDTO customer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
 
         mockMvc.perform(delete(CustomerController.CUSTOMER_PATH_ID, customer.getId())
                         .with(JWT_REQUEST_POST_PROCESSOR)
@@ -88,7 +97,9 @@ class CustomerControllerTest {
 
     @Test
     void testUpdateCustomer() throws Exception {
-        CustomerDTO customer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
+
+        given(customerService.updateCustomerById(any(), any())).willReturn(Optional.of(customer));
 
         mockMvc.perform(put(CustomerController.CUSTOMER_PATH_ID, customer.getId())
                         .with(JWT_REQUEST_POST_PROCESSOR)
@@ -102,14 +113,32 @@ class CustomerControllerTest {
         assertThat(customer.getId()).isEqualTo(uuidArgumentCaptor.getValue());
     }
 
+    @Test
+    void updateAndPatchOfUnknownCustomerReturnNotFound() throws Exception {
+        given(customerService.updateCustomerById(any(), any())).willReturn(Optional.empty());
+        given(customerService.patchCustomerById(any(), any())).willReturn(Optional.empty());
+
+        mockMvc.perform(put(CustomerController.CUSTOMER_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .content(objectMapper.writeValueAsString(CustomerDTO.builder().name("Ghost").build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(patch(CustomerController.CUSTOMER_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .content(objectMapper.writeValueAsString(CustomerDTO.builder().name("Ghost").build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCreateCustomer() throws Exception {
-        CustomerDTO customer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
         customer.setId(null);
         customer.setVersion(null);
 
         given(customerService.saveNewCustomer(any(CustomerDTO.class)))
-                .willReturn(customerServiceImpl.getAllCustomers().get(1));
+                .willReturn(customerServiceImpl.listCustomers(1, 25).getContent().get(1));
 
         mockMvc.perform(post(CustomerController.CUSTOMER_PATH).contentType(MediaType.APPLICATION_JSON)
                         .with(JWT_REQUEST_POST_PROCESSOR)
@@ -119,21 +148,101 @@ class CustomerControllerTest {
                 .andExpect(header().exists("Location"));
     }
 
+    @Test
+    void testUpdateCustomerWithoutNameIsRejected() throws Exception {
+        mockMvc.perform(put(CustomerController.CUSTOMER_PATH_ID, UUID.randomUUID())
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].field", is("name")));
+
+        verify(customerService, never()).updateCustomerById(any(), any());
+    }
+
+    @Test
+    void testCreateCustomerWithBlankNameIsRejected() throws Exception {
+        mockMvc.perform(post(CustomerController.CUSTOMER_PATH).contentType(MediaType.APPLICATION_JSON)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CustomerDTO.builder().name(" ").build())))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).saveNewCustomer(any());
+    }
+
+    @Test
+    void testCreateCustomerFromCbor() throws Exception {
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
+        customer.setId(null);
+        customer.setVersion(null);
+
+        given(customerService.saveNewCustomer(any(CustomerDTO.class)))
+                .willReturn(customerServiceImpl.listCustomers(1, 25).getContent().get(1));
+
+        mockMvc.perform(post(CustomerController.CUSTOMER_PATH).contentType(MediaType.APPLICATION_CBOR)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .content(Jackson2ObjectMapperBuilder.cbor().build().writeValueAsBytes(customer)))
+                .andExpect(status().isCreated());
+
+        verify(customerService).saveNewCustomer(customerArgumentCaptor.capture());
+        assertThat(customerArgumentCaptor.getValue().getName()).isEqualTo(customer.getName());
+    }
+
+    @Test
+    void listAllCustomersAsSmile() throws Exception {
+        given(customerService.listCustomers(any(), any())).willReturn(customerServiceImpl.listCustomers(1, 25));
+
+        byte[] body = mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(Jackson2ObjectMapperBuilder.smile().build().readTree(body).get("content").size()).isEqualTo(3);
+    }
+
     @Test
     void listAllCustomers() throws Exception {
-        given(customerService.getAllCustomers()).willReturn(customerServiceImpl.getAllCustomers());
+        given(customerService.listCustomers(any(), any())).willReturn(customerServiceImpl.listCustomers(1, 25));
 
         mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
                         .with(JWT_REQUEST_POST_PROCESSOR)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()", is(3)));
+                .andExpect(jsonPath("$.content.length()", is(3)));
+    }
+
+    @Test
+    void listCustomersByCursorReturnsNextCursor() throws Exception {
+        given(customerService.scrollCustomers(any(), any())).willReturn(customerServiceImpl.scrollCustomers(null, 2));
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .queryParam("cursor", "")
+                        .queryParam("pageSize", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(2)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void listCustomersByCursorRejectsInvalidCursor() throws Exception {
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .queryParam("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getCustomerById() throws Exception {
-        CustomerDTO customer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
 
         given(customerService.getCustomerById(customer.getId())).willReturn(Optional.of(customer));
 
@@ -142,10 +251,26 @@ class CustomerControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + customer.getId() + "-" + customer.getVersion() + "\""))
                 .andExpect(jsonPath("$.name", is(customer.getName())));
 
     }
 
+    @Test
+    void getCustomerByIdNotModified() throws Exception {
+        CustomerDTO customer = customerServiceImpl.listCustomers(1, 25).getContent().get(0);
+
+        given(customerService.getCustomerVersion(customer.getId())).willReturn(Optional.of(customer.getVersion()));
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, customer.getId())
+                        .with(JWT_REQUEST_POST_PROCESSOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"" + customer.getId() + "-" + customer.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+
+        verify(customerService, never()).getCustomerById(any(UUID.class));
+    }
+
     @Test
     void getCustomerByIdWillThrowNotFoundException() throws Exception {
 
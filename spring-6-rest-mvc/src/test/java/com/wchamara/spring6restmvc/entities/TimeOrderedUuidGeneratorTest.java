@@ -0,0 +1,110 @@
+package com.wchamara.spring6restmvc.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    static final Instant NOW = Instant.parse("2024-08-01T10:15:30.123Z");
+
+    @Test
+    void idIsVersionSevenWithTheCurrentMillisecond() {
+        UUID id = new TimeOrderedUuidGenerator(true, Clock.fixed(NOW, ZoneOffset.UTC)).next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    void idIsRandomUnlessTimeOrderedIdsAreTurnedOn() {
+        UUID id = new TimeOrderedUuidGenerator(false, Clock.fixed(NOW, ZoneOffset.UTC)).next();
+
+        assertThat(id.version()).isEqualTo(4);
+    }
+
+    @Test
+    void idsKeepIncreasingWithinOneMillisecondAndWhenTheClockStepsBack() {
+        AtomicLong millis = new AtomicLong(NOW.toEpochMilli());
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(true, new Clock() {
+            @Override
+            public long millis() {
+                return millis.get();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis());
+            }
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        });
+
+        List<UUID> ids = new ArrayList<>();
+        // more than the 4096 values of the counter, so it carries into the timestamp
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next());
+        }
+        millis.addAndGet(-1000);
+        ids.add(generator.next());
+
+        for (int i = 1; i < ids.size(); i++) {
+            // both the text and the bytes must sort in generation order
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+            assertThat(ids.get(i).getMostSignificantBits()).isGreaterThan(ids.get(i - 1).getMostSignificantBits());
+        }
+    }
+
+    @Test
+    void concurrentGeneratorsNeverCollide() throws Exception {
+        // two nodes with the same clock, four threads each
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        List<TimeOrderedUuidGenerator> nodes = List.of(new TimeOrderedUuidGenerator(true, clock), new TimeOrderedUuidGenerator(true, clock));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            TimeOrderedUuidGenerator generator = nodes.get(thread % 2);
+            futures.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.next());
+                }
+                return ids;
+            }));
+        }
+
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> future : futures) {
+            List<UUID> ids = future.get();
+            assertThat(ids).isSortedAccordingTo(UUID::compareTo);
+            all.addAll(ids);
+        }
+        executor.shutdown();
+
+        assertThat(all).hasSize(8 * 20_000);
+    }
+}
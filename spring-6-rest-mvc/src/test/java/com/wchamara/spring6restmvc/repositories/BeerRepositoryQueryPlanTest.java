@@ -0,0 +1,160 @@
+package com.wchamara.spring6restmvc.repositories;
+
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every derived query of {@link BeerRepository} against the embedded database, asks H2 for the plan of each
+ * statement it issued and fails on a full table scan. A new derived query either gets an index or an entry in
+ * {@link #EXPECTED_SCANS} saying why it cannot use one.
+ */
+@DataJpaTest
+class BeerRepositoryQueryPlanTest {
+
+    /**
+     * Queries that read the whole table by design. A substring match on {@code upper(beer_name)} cannot use an
+     * index, which is why name searches go through the in-process trigram index first.
+     */
+    static final Map<String, String> EXPECTED_SCANS = Map.of(
+            "findAllByBeerNameIsLikeIgnoreCase", "unanchored like on upper(beer_name)",
+            "countByBeerNameIsLikeIgnoreCase", "unanchored like on upper(beer_name)");
+
+    static final String FULL_SCAN = ".tableScan";
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RecordingStatementInspector statementInspector;
+
+    @BeforeEach
+    void setUp() {
+        statementInspector.statements.clear();
+    }
+
+    @Test
+    void derivedQueriesUseIndexes() throws Exception {
+        List<String> fullScans = new ArrayList<>();
+
+        for (Method method : derivedQueries()) {
+            statementInspector.statements.clear();
+            method.invoke(beerRepository, arguments(method));
+            assertThat(statementInspector.statements).as(method.getName()).isNotEmpty();
+
+            for (String sql : statementInspector.statements) {
+                String plan = explain(sql);
+                if (plan.contains(FULL_SCAN) && !EXPECTED_SCANS.containsKey(method.getName())) {
+                    fullScans.add(method.getName() + ": " + plan);
+                }
+            }
+        }
+
+        assertThat(fullScans).isEmpty();
+    }
+
+    @Test
+    void expectedScansAreStillDerivedQueries() {
+        assertThat(derivedQueries()).extracting(Method::getName).containsAll(EXPECTED_SCANS.keySet());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("explain " + sql),
+                resultSet -> resultSet.next() ? resultSet.getString(1) : "");
+    }
+
+    private static List<Method> derivedQueries() {
+        return Arrays.stream(BeerRepository.class.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> !method.isAnnotationPresent(Query.class))
+                .sorted(Comparator.comparing(Method::toGenericString))
+                .toList();
+    }
+
+    private static Object[] arguments(Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(BeerRepositoryQueryPlanTest::argument)
+                .toArray();
+    }
+
+    private static Object argument(Class<?> type) {
+        if (type == String.class) {
+            return "%ale%";
+        }
+        if (type == BeerStyle.class) {
+            return BeerStyle.ALE;
+        }
+        if (type == Pageable.class) {
+            // past the first page, so pages also run their count query
+            return PageRequest.of(1, 10, Sort.by("beerName"));
+        }
+        if (type == ScrollPosition.class) {
+            return ScrollPosition.keyset();
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        if (type == Sort.class) {
+            return Sort.by("beerName", "id");
+        }
+        if (type == Collection.class) {
+            return List.of(UUID.randomUUID());
+        }
+        throw new IllegalArgumentException("No sample argument for " + type);
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector statementInspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+        }
+    }
+}
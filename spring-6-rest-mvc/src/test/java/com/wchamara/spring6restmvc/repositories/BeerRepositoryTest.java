@@ -2,22 +2,36 @@ package com.wchamara.spring6restmvc.repositories;
 
 import com.wchamara.spring6restmvc.bootstrap.InitData;
 import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerName;
 import com.wchamara.spring6restmvc.model.BeerStyle;
 import com.wchamara.spring6restmvc.service.BeerCsvServiceImpl;
+import com.wchamara.spring6restmvc.service.BeerImportServiceImpl;
+import com.wchamara.spring6restmvc.service.BeerNameIndex;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
-@Import({InitData.class, BeerCsvServiceImpl.class})
+@Import({InitData.class, BeerImportServiceImpl.class, BeerCsvServiceImpl.class, BeerNameIndex.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
 class BeerRepositoryTest {
 
     @Autowired
@@ -30,6 +44,51 @@ class BeerRepositoryTest {
         assertThat(allByBeerNameIsLikeIgnoreCase.getContent().size()).isEqualTo(336);
     }
 
+    @Test
+    void getBeerDtosByBeerNameWithoutInventory() {
+        Page<BeerDTO> beerDtos = beerRepository.findBeerDtosByBeerName("%IPA%", false, PageRequest.of(0, 50, Sort.by("beerName")));
+
+        assertThat(beerDtos.getTotalElements()).isEqualTo(336L);
+        assertThat(beerDtos.getContent().size()).isEqualTo(50);
+        assertThat(beerDtos.getContent().get(0).getBeerName()).isNotNull();
+        assertThat(beerDtos.getContent().stream().allMatch(beerDTO -> beerDTO.getQuantityOnHand() == null)).isTrue();
+    }
+
+    @Test
+    void getBeerDtosByBeerStyleWithInventory() {
+        Page<BeerDTO> beerDtos = beerRepository.findBeerDtosByBeerStyle(BeerStyle.IPA, true, PageRequest.of(0, 25));
+
+        assertThat(beerDtos.getContent().stream().allMatch(beerDTO -> beerDTO.getQuantityOnHand() != null)).isTrue();
+        assertThat(beerDtos.getContent().stream().allMatch(beerDTO -> beerDTO.getBeerStyle() == BeerStyle.IPA)).isTrue();
+    }
+
+    @Test
+    void scrollBeerDtosByBeerName() {
+        Set<UUID> seen = new HashSet<>();
+
+        List<BeerDTO> page = beerRepository.scrollBeerDtosByBeerName("%IPA%", "", new UUID(0L, 0L), false, Limit.of(100));
+        while (!page.isEmpty()) {
+            page.forEach(beerDTO -> assertThat(beerDTO.getQuantityOnHand()).isNull());
+            page.forEach(beerDTO -> seen.add(beerDTO.getId()));
+            BeerDTO last = page.get(page.size() - 1);
+            page = beerRepository.scrollBeerDtosByBeerName("%IPA%", last.getBeerName(), last.getId(), false, Limit.of(100));
+        }
+
+        assertThat(seen.size()).isEqualTo(336);
+    }
+
+    @Test
+    void pageBeerNamesById() {
+        Set<UUID> seen = new HashSet<>();
+
+        List<BeerName> names = beerRepository.findNames(Limit.of(500));
+        while (!names.isEmpty()) {
+            names.forEach(name -> seen.add(name.id()));
+            names = beerRepository.findNamesAfter(names.get(names.size() - 1).id(), Limit.of(500));
+        }
+
+        assertThat(seen.size()).isEqualTo((int) beerRepository.count());
+    }
 
     @Test
     void saveBeer() {
@@ -45,6 +104,8 @@ class BeerRepositoryTest {
         assertThat(savedBudweiser).isNotNull();
         assertThat(savedBudweiser.getBeerName()).isEqualTo("Budweiser");
         assertThat(savedBudweiser.getId()).isNotNull();
+        // time-ordered ids are opt-in
+        assertThat(savedBudweiser.getId().version()).isEqualTo(4);
     }
 
     @Test
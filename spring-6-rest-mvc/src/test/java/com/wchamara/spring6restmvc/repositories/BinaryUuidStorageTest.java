@@ -0,0 +1,76 @@
+package com.wchamara.spring6restmvc.repositories;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.entities.Category;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the binaryuuid profile's settings
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type=BINARY",
+        "spring.jpa.properties.beer.ids.time-ordered=true"})
+class BinaryUuidStorageTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keysAndForeignKeysAreSixteenBytes() {
+        assertThat(column("BEER", "ID")).containsEntry("DATA_TYPE", "BINARY").containsEntry("CHARACTER_OCTET_LENGTH", 16L);
+        assertThat(column("BEER_CATEGORY", "BEER_ID")).containsEntry("DATA_TYPE", "BINARY");
+        assertThat(column("BEER_ORDER_LINE", "BEER_ORDER_ID")).containsEntry("DATA_TYPE", "BINARY");
+    }
+
+    @Test
+    void beerWithCategoriesRoundTrips() {
+        Category category = categoryRepository.save(Category.builder().description("Ales").build());
+        Beer beer = Beer.builder()
+                .beerName("Binary")
+                .beerStyle(BeerStyle.ALE)
+                .upc("123")
+                .price(BigDecimal.TEN)
+                .build();
+        beer.addCategory(category);
+        beerRepository.saveAndFlush(beer);
+        testEntityManager.clear();
+
+        Beer found = beerRepository.findWithCategoriesByIdIn(List.of(beer.getId())).get(0);
+
+        assertThat(found.getId()).isEqualTo(beer.getId());
+        assertThat(found.getId().version()).isEqualTo(7);
+        assertThat(found.getCategories()).extracting(Category::getId).containsExactly(category.getId());
+        assertThat(jdbcTemplate.queryForObject("select octet_length(id) from beer where id = ?", Integer.class,
+                (Object) uuidBytes(beer))).isEqualTo(16);
+    }
+
+    private Map<String, Object> column(String table, String column) {
+        return jdbcTemplate.queryForMap("select data_type, character_octet_length from information_schema.columns"
+                + " where table_name = ? and column_name = ?", table, column);
+    }
+
+    private static byte[] uuidBytes(Beer beer) {
+        return ByteBuffer.allocate(16)
+                .putLong(beer.getId().getMostSignificantBits())
+                .putLong(beer.getId().getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,122 @@
+package com.wchamara.spring6restmvc.repositories;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.entities.Category;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+// every lookup runs in its own persistence context, so only the second-level cache can serve a repeat
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    Statistics statistics;
+
+    UUID categoryId;
+
+    UUID beerId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().description("Ales").build());
+        Beer beer = Beer.builder()
+                .beerName("Cached")
+                .beerStyle(BeerStyle.ALE)
+                .upc("123")
+                .price(BigDecimal.TEN)
+                .build();
+        beer.addCategory(category);
+        beerId = beerRepository.save(beer).getId();
+        categoryId = category.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        categoryRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedCategoryLookupRunsNoSql() {
+        assertThat(loadBeerCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(loadBeerCount()).isEqualTo(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(3);
+        assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+    }
+
+    @Test
+    void categoryUpdateReplacesTheCachedEntry() {
+        loadBeerCount();
+
+        Category category = categoryRepository.findById(categoryId).orElseThrow();
+        category.setDescription("Pale Ales");
+        categoryRepository.save(category);
+
+        statistics.clear();
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            assertThat(entityManager.find(Category.class, categoryId).getDescription()).isEqualTo("Pale Ales");
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void deletingALinkedCategoryUnlinksItsBeers() {
+        loadBeerCount();
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            assertThat(entityManager.find(Beer.class, beerId).getCategories()).hasSize(1);
+        }
+
+        categoryRepository.deleteById(categoryId);
+
+        assertThat(categoryRepository.findById(categoryId)).isEmpty();
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            assertThat(entityManager.find(Beer.class, beerId).getCategories()).isEmpty();
+        }
+    }
+
+    @Test
+    void deletingALinkedBeerDropsItFromTheCachedCategory() {
+        assertThat(loadBeerCount()).isEqualTo(1);
+
+        beerRepository.deleteById(beerId);
+
+        assertThat(loadBeerCount()).isZero();
+    }
+
+    private int loadBeerCount() {
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+            Category category = entityManager.find(Category.class, categoryId);
+            return category.getBeers().size();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.wchamara.spring6restmvc.repositories;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.entities.BeerOrder;
+import com.wchamara.spring6restmvc.entities.BeerOrderLine;
+import com.wchamara.spring6restmvc.entities.Category;
+import com.wchamara.spring6restmvc.entities.Customer;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+// every repository call runs in its own transaction, so the statement counts are exactly what one call costs
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FetchPlanTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    Statistics statistics;
+
+    UUID customerId;
+
+    UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Category ales = persist(Category.builder().description("Ales").build());
+            Category seasonal = persist(Category.builder().description("Seasonal").build());
+            categoryId = ales.getId();
+
+            List<Beer> beers = new ArrayList<>();
+            for (String beerName : List.of("Alpha", "Bravo", "Charlie", "Delta")) {
+                Beer beer = persist(Beer.builder()
+                        .beerName(beerName)
+                        .beerStyle(BeerStyle.ALE)
+                        .upc("123")
+                        .price(BigDecimal.TEN)
+                        .build());
+                beer.addCategory(ales);
+                beer.addCategory(seasonal);
+                beers.add(beer);
+            }
+
+            for (String name : List.of("Ann", "Bob", "Cid")) {
+                Customer customer = persist(Customer.builder().name(name).build());
+                customerId = customer.getId();
+                for (int i = 0; i < 2; i++) {
+                    BeerOrder beerOrder = BeerOrder.builder().customerRef(name + i).build();
+                    beerOrder.setCustomer(customer);
+                    beers.subList(i, i + 2).forEach(beer ->
+                            beerOrder.addBeerOrderLine(BeerOrderLine.builder().beer(beer).orderQuantity(1).build()));
+                    persist(beerOrder);
+                }
+            }
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createQuery("delete from BeerOrderLine").executeUpdate());
+        beerOrderRepository.deleteAllInBatch();
+        customerRepository.deleteAll();
+        beerRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void beersPageWithTheirCategoriesInThreeQueries() {
+        Page<Beer> page = beerRepository.findAllWithCategories(PageRequest.of(1, 2, Sort.by("beerName")));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(Beer::getBeerName).containsExactly("Charlie", "Delta");
+        assertThat(page.getContent()).allSatisfy(beer -> {
+            assertThat(Hibernate.isInitialized(beer.getCategories())).isTrue();
+            assertThat(beer.getCategories()).hasSize(2);
+        });
+        // ids, count, one entity graph query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void customersPageWithTheirOrdersInThreeQueries() {
+        Page<Customer> page = customerRepository.findAllWithBeerOrders(PageRequest.of(0, 2, Sort.by("name")));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(Customer::getName).containsExactly("Ann", "Bob");
+        assertThat(page.getContent()).allSatisfy(customer -> {
+            assertThat(Hibernate.isInitialized(customer.getBeerOrders())).isTrue();
+            assertThat(customer.getBeerOrders()).hasSize(2);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void customerOrdersPageWithTheirLinesAndBeers() {
+        Page<BeerOrder> page = beerOrderRepository.findAllWithLinesByCustomerId(customerId,
+                PageRequest.of(0, 1, Sort.by("customerRef")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).singleElement().satisfies(beerOrder -> {
+            assertThat(beerOrder.getCustomerRef()).isEqualTo("Cid0");
+            assertThat(beerOrder.getBeerOrderLines()).hasSize(2)
+                    .allSatisfy(line -> assertThat(Hibernate.isInitialized(line.getBeer())).isTrue());
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void lazyCollectionsOfAPageLoadInBatches() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Beer> beers = beerRepository.findAll();
+            beers.forEach(beer -> beer.getCategories().size());
+        });
+
+        // the beers, then the categories of all four in one batch and the categories themselves
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void categoryWithItsBeersInOneQuery() {
+        Category category = categoryRepository.findWithBeersById(categoryId).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(category.getBeers())).isTrue();
+        assertThat(category.getBeers()).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,124 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.mapper.BeerMapperImpl;
+import com.wchamara.spring6restmvc.model.BeerBatchAction;
+import com.wchamara.spring6restmvc.model.BeerBatchItemResult;
+import com.wchamara.spring6restmvc.model.BeerBatchItemStatus;
+import com.wchamara.spring6restmvc.model.BeerBatchOperation;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataJpaTest(properties = "beer.batch.chunk-size=2")
+@Import({BeerBatchServiceImpl.class, BeerMapperImpl.class, BeerNameIndex.class, BeerDtoCache.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+// the service commits its own chunk transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BeerBatchServiceImplTest {
+
+    @Autowired
+    BeerBatchService beerBatchService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void executeReportsOneResultPerOperation() {
+        Beer existing = beerRepository.save(beer("Existing"));
+
+        List<BeerBatchItemResult> results = beerBatchService.execute(List.of(
+                create(beerDto("Created 1")),
+                create(BeerDTO.builder().beerName("No Price").build()),
+                BeerBatchOperation.builder().action(BeerBatchAction.PATCH).id(existing.getId())
+                        .beer(BeerDTO.builder().beerName("Patched").build()).build(),
+                BeerBatchOperation.builder().action(BeerBatchAction.DELETE).id(UUID.randomUUID()).build(),
+                create(beerDto("Created 2"))
+        ));
+
+        assertThat(results.size()).isEqualTo(5);
+        assertThat(results.get(0).getStatus()).isEqualTo(BeerBatchItemStatus.CREATED);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getStatus()).isEqualTo(BeerBatchItemStatus.INVALID);
+        assertThat(results.get(1).getErrors().isEmpty()).isFalse();
+        assertThat(results.get(2).getStatus()).isEqualTo(BeerBatchItemStatus.UPDATED);
+        assertThat(results.get(2).getVersion()).isEqualTo(existing.getVersion() + 1);
+        assertThat(results.get(3).getStatus()).isEqualTo(BeerBatchItemStatus.NOT_FOUND);
+        assertThat(results.get(4).getStatus()).isEqualTo(BeerBatchItemStatus.CREATED);
+
+        assertThat(beerRepository.count()).isEqualTo(3L);
+        assertThat(beerRepository.findById(existing.getId()).get().getBeerName()).isEqualTo("Patched");
+    }
+
+    @Test
+    void staleVersionIsConflict() {
+        Beer existing = beerRepository.save(beer("Existing"));
+        BeerDTO update = beerDto("Updated");
+        update.setVersion(existing.getVersion() + 5);
+
+        List<BeerBatchItemResult> results = beerBatchService.execute(List.of(
+                BeerBatchOperation.builder().action(BeerBatchAction.UPDATE).id(existing.getId()).beer(update).build()));
+
+        assertThat(results.get(0).getStatus()).isEqualTo(BeerBatchItemStatus.CONFLICT);
+        assertThat(beerRepository.findById(existing.getId()).get().getBeerName()).isEqualTo("Existing");
+    }
+
+    @Test
+    void failingOperationOnlyFailsItself() {
+        Beer existing = beerRepository.save(beer("Existing"));
+
+        // passes BeerDTO validation but breaks the 50 character column limit on flush
+        List<BeerBatchItemResult> results = beerBatchService.execute(List.of(
+                create(beerDto("Created")),
+                BeerBatchOperation.builder().action(BeerBatchAction.UPDATE).id(existing.getId())
+                        .beer(beerDto("x".repeat(60))).build()
+        ));
+
+        assertThat(results.get(0).getStatus()).isEqualTo(BeerBatchItemStatus.CREATED);
+        assertThat(results.get(1).getStatus()).isEqualTo(BeerBatchItemStatus.FAILED);
+        assertThat(beerRepository.count()).isEqualTo(2L);
+    }
+
+    private static BeerBatchOperation create(BeerDTO beerDTO) {
+        return BeerBatchOperation.builder().action(BeerBatchAction.CREATE).beer(beerDTO).build();
+    }
+
+    private static BeerDTO beerDto(String beerName) {
+        return BeerDTO.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.IPA)
+                .upc("12345")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(10)
+                .build();
+    }
+
+    private static Beer beer(String beerName) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.IPA)
+                .upc("12345")
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerCountCacheTest {
+
+    @Test
+    void firstReadSchedulesCountAndLaterReadsAreCached() {
+        BeerCountCache beerCountCache = new BeerCountCache(new SyncTaskExecutor(), true, Duration.ofMinutes(1), 10);
+        AtomicInteger counted = new AtomicInteger();
+
+        assertThat(beerCountCache.approximateCount("IPA", BeerStyle.IPA, () -> counted.incrementAndGet() * 100L)).isNull();
+        assertThat(beerCountCache.approximateCount("ipa", BeerStyle.IPA, () -> counted.incrementAndGet() * 100L)).isEqualTo(100L);
+        assertThat(beerCountCache.approximateCount("IPA", BeerStyle.IPA, () -> counted.incrementAndGet() * 100L)).isEqualTo(100L);
+
+        assertThat(counted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        BeerCountCache beerCountCache = new BeerCountCache(pending::add, true, Duration.ZERO, 10);
+        AtomicInteger counted = new AtomicInteger();
+
+        beerCountCache.approximateCount(null, BeerStyle.ALE, () -> counted.incrementAndGet());
+        runAll(pending);
+
+        assertThat(beerCountCache.approximateCount(null, BeerStyle.ALE, () -> counted.incrementAndGet())).isEqualTo(1L);
+        runAll(pending);
+        assertThat(beerCountCache.approximateCount(null, BeerStyle.ALE, () -> counted.incrementAndGet())).isEqualTo(2L);
+    }
+
+    @Test
+    void newFiltersAreStillCountedOnceTheCacheIsFull() {
+        BeerCountCache beerCountCache = new BeerCountCache(new SyncTaskExecutor(), true, Duration.ofMinutes(1), 2);
+
+        for (int i = 0; i < 10; i++) {
+            long expected = i;
+            beerCountCache.approximateCount("beer " + i, null, () -> expected);
+
+            assertThat(beerCountCache.approximateCount("beer " + i, null, () -> expected)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void disabledCacheNeverCounts() {
+        BeerCountCache beerCountCache = new BeerCountCache(new SyncTaskExecutor(), false, Duration.ofMinutes(1), 10);
+
+        beerCountCache.approximateCount(null, null, () -> {
+            throw new AssertionError("count query issued");
+        });
+
+        assertThat(beerCountCache.approximateCount(null, null, () -> 1L)).isNull();
+    }
+
+    private static void runAll(Queue<Runnable> pending) {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+}
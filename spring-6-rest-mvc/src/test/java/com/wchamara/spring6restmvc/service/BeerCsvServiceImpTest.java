@@ -4,15 +4,26 @@ import com.wchamara.spring6restmvc.model.BeerCSVRecord;
 import org.junit.jupiter.api.Test;
 import org.springframework.util.ResourceUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 
 public class BeerCsvServiceImpTest {
 
+    static final String CSV = """
+            "row","count.x","abv","ibu","id","beer","style","brewery_id","ounces","style2","count.y","brewery","city","state","label"
+            "1",1,0.05,NA,1436,"Pub Beer","American Pale Lager",408,12,NA,409,"10 Barrel Brewing Company","Bend","OR","Pub Beer"
+            "2",2,0.066,NA,2265,"Devil's Cup","American Pale Ale (APA)",177,12,NA,178,"18th Street Brewery","Gary","IN","Devil's Cup"
+            """;
+
     BeerCsvService beerCsvService = new BeerCsvServiceImpl();
 
     @Test
@@ -25,4 +36,36 @@ public class BeerCsvServiceImpTest {
 
         assertThat(recs.size()).isGreaterThan(0);
     }
+
+    @Test
+    void streamCsvFromFile() throws FileNotFoundException {
+        File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+
+        long count;
+        try (Stream<BeerCSVRecord> records = beerCsvService.streamCsv(file)) {
+            count = records.count();
+        }
+
+        assertThat(count).isEqualTo(beerCsvService.convertCsv(file).size());
+    }
+
+    @Test
+    void streamCsvFromInputStreamClosesSource() {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream inputStream = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        BeerCSVRecord first;
+        try (Stream<BeerCSVRecord> records = beerCsvService.streamCsv(inputStream)) {
+            first = records.findFirst().orElseThrow();
+            assertThat(closed.get()).isFalse();
+        }
+
+        assertThat(first.getBeer()).isEqualTo("Pub Beer");
+        assertThat(closed.get()).isTrue();
+    }
 }
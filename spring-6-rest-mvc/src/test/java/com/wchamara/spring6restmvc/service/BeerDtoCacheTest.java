@@ -0,0 +1,76 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BeerDtoCacheTest {
+
+    BeerDtoCache beerDtoCache = new BeerDtoCache(true, 100, Duration.ofMinutes(10));
+
+    BeerDTO beerDTO = BeerDTO.builder()
+            .id(UUID.randomUUID())
+            .version(1)
+            .beerName("Galaxy Cat")
+            .beerStyle(BeerStyle.PALE_ALE)
+            .build();
+
+    @Test
+    void readThroughLoadsOnceAndCountsHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+
+        beerDtoCache.get(beerDTO.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(beerDTO);
+        });
+        Optional<BeerDTO> cached = beerDtoCache.get(beerDTO.getId(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(beerDTO);
+        });
+
+        assertThat(cached).contains(beerDTO);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(beerDtoCache.stats().hitCount()).isEqualTo(1);
+        assertThat(beerDtoCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void returnedCopiesDoNotLeakMutations() {
+        beerDtoCache.get(beerDTO.getId(), id -> Optional.of(beerDTO));
+
+        beerDtoCache.get(beerDTO.getId(), id -> Optional.empty()).get().setBeerName("Changed");
+
+        assertThat(beerDtoCache.get(beerDTO.getId(), id -> Optional.empty()).get().getBeerName()).isEqualTo("Galaxy Cat");
+    }
+
+    @Test
+    void evictionForcesReload() {
+        beerDtoCache.get(beerDTO.getId(), id -> Optional.of(beerDTO));
+
+        beerDtoCache.evictIfStale(beerDTO.getId(), 1);
+        assertThat(beerDtoCache.invalidationCount()).isZero();
+
+        beerDtoCache.evictIfStale(beerDTO.getId(), 2);
+        assertThat(beerDtoCache.invalidationCount()).isEqualTo(1);
+        assertThat(beerDtoCache.get(beerDTO.getId(), id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertThatThrownBy(() -> beerDtoCache.get(beerDTO.getId(), id -> {
+            throw failure;
+        })).isSameAs(failure);
+
+        assertThat(beerDtoCache.get(beerDTO.getId(), id -> Optional.of(beerDTO))).contains(beerDTO);
+    }
+}
@@ -0,0 +1,51 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.bootstrap.InitData;
+import com.wchamara.spring6restmvc.model.BeerExportFormat;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataJpaTest
+@Import({BeerExportServiceImpl.class, InitData.class, BeerImportServiceImpl.class, BeerCsvServiceImpl.class, BeerNameIndex.class})
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+class BeerExportServiceImplTest {
+
+    @Autowired
+    BeerExportService beerExportService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    void exportNdjsonWritesOneLinePerBeer() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        beerExportService.exportBeers(BeerExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat((long) lines.length).isEqualTo(beerRepository.count());
+        assertThat(lines[0]).startsWith("{\"id\":");
+    }
+
+    @Test
+    void exportCsvWritesHeaderAndOneLinePerBeer() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        beerExportService.exportBeers(BeerExportFormat.CSV, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat((long) lines.length).isEqualTo(beerRepository.count() + 1);
+        assertThat(lines[0]).isEqualTo(String.join(",", BeerExportServiceImpl.CSV_HEADER));
+    }
+}
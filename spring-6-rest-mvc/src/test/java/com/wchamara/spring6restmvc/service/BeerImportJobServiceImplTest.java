@@ -0,0 +1,89 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.model.BeerImportJobDTO;
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+import com.wchamara.spring6restmvc.model.BeerImportStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class BeerImportJobServiceImplTest {
+
+    BeerImportService countingImportService = new BeerImportService() {
+        @Override
+        public BeerImportResult importCsv(File file) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BeerImportResult importRecords(Stream<BeerCSVRecord> records, BeerImportProgress progress) {
+            progress.start();
+            records.forEach(record -> {
+                if (record.getBeer() == null) {
+                    progress.rejected();
+                } else {
+                    progress.processed(1);
+                }
+            });
+            progress.finish();
+            return progress.snapshot();
+        }
+    };
+
+    BeerImportJobServiceImpl beerImportJobService = new BeerImportJobServiceImpl(countingImportService,
+            new BeerCsvServiceImpl(), 1, 10, Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        beerImportJobService.shutdown();
+    }
+
+    @Test
+    void submitRunsImportInBackgroundAndDeletesFile() throws Exception {
+        Path csvFile = Files.createTempFile("beer-import-test-", ".csv");
+        Files.writeString(csvFile, BeerCsvServiceImpTest.CSV);
+
+        BeerImportJobDTO submitted = beerImportJobService.submit(csvFile, "beers.csv");
+        BeerImportJobDTO finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(BeerImportStatus.COMPLETED);
+        assertThat(finished.getRowsProcessed()).isEqualTo(2L);
+        assertThat(finished.getFinishedDate()).isNotNull();
+        assertThat(Files.exists(csvFile)).isFalse();
+    }
+
+    @Test
+    void missingFileMarksJobFailed() throws Exception {
+        Path csvFile = Files.createTempFile("beer-import-test-", ".csv");
+        Files.delete(csvFile);
+
+        BeerImportJobDTO finished = awaitFinished(beerImportJobService.submit(csvFile, "gone.csv").getId());
+
+        assertThat(finished.getStatus()).isEqualTo(BeerImportStatus.FAILED);
+        assertThat(finished.getError()).isNotNull();
+    }
+
+    @Test
+    void unknownJob() {
+        assertThat(beerImportJobService.getJob(UUID.randomUUID()).isEmpty()).isTrue();
+    }
+
+    private BeerImportJobDTO awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        BeerImportJobDTO job = beerImportJobService.getJob(jobId).orElseThrow();
+        while (job.getFinishedDate() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = beerImportJobService.getJob(jobId).orElseThrow();
+        }
+        return job;
+    }
+}
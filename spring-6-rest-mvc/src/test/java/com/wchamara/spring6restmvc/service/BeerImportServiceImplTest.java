@@ -0,0 +1,48 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerCSVRecord;
+import com.wchamara.spring6restmvc.model.BeerImportResult;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "beer.import.chunk-size=2")
+@Import({BeerImportServiceImpl.class, BeerCsvServiceImpl.class, BeerNameIndex.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class BeerImportServiceImplTest {
+
+    @Autowired
+    BeerImportService beerImportService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    void importsInChunksAndRejectsInvalidRows() {
+        Stream<BeerCSVRecord> records = IntStream.rangeClosed(1, 5).mapToObj(row -> {
+            BeerCSVRecord beerCSVRecord = new BeerCSVRecord();
+            beerCSVRecord.setRow(row);
+            beerCSVRecord.setBeer(row == 3 ? null : "Beer " + row);
+            beerCSVRecord.setStyle("American IPA");
+            beerCSVRecord.setCount(row);
+            return beerCSVRecord;
+        });
+
+        BeerImportResult result = beerImportService.importRecords(records, new BeerImportProgress());
+
+        assertThat(result.rowsProcessed()).isEqualTo(4);
+        assertThat(result.rowsRejected()).isEqualTo(1);
+        assertThat(beerRepository.count()).isEqualTo(4);
+        assertThat(beerRepository.findAll()).allMatch(beer -> beer.getBeerStyle() == BeerStyle.IPA);
+    }
+}
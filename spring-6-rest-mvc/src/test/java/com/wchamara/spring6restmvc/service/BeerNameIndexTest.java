@@ -0,0 +1,96 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.model.BeerName;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BeerNameIndexTest {
+
+    BeerNameIndex beerNameIndex;
+
+    Beer galaxyIpa = beer("Galaxy IPA", BeerStyle.IPA);
+    Beer hazyIpa = beer("Hazy ipa", BeerStyle.IPA);
+    Beer galaxyAle = beer("Galaxy Ale", BeerStyle.ALE);
+
+    BeerRepository beerRepository = mock(BeerRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        given(beerRepository.findNames(any())).willReturn(names(galaxyIpa, hazyIpa, galaxyAle));
+
+        beerNameIndex = new BeerNameIndex(beerRepository, true, Duration.ofMinutes(5), 2);
+        beerNameIndex.rebuild();
+    }
+
+    @Test
+    void searchMatchesSubstringIgnoringCase() {
+        assertThat(beerNameIndex.search("IPA", null)).contains(Set.of(galaxyIpa.getId(), hazyIpa.getId()));
+        assertThat(beerNameIndex.search("laxy", null)).contains(Set.of(galaxyAle.getId(), galaxyIpa.getId()));
+    }
+
+    @Test
+    void searchRestrictsByStyle() {
+        assertThat(beerNameIndex.search("galaxy", BeerStyle.ALE)).contains(Set.of(galaxyAle.getId()));
+    }
+
+    @Test
+    void sharedTrigramsAreNotEnoughToMatch() {
+        assertThat(beerNameIndex.search("ipa galaxy", null)).contains(Set.of());
+    }
+
+    @Test
+    void termsMatchingTooManyBeersFallBackToDatabase() {
+        beerNameIndex.index(UUID.randomUUID(), "Galaxy Lager", BeerStyle.LAGER);
+
+        assertThat(beerNameIndex.search("galaxy", null)).isEmpty();
+    }
+
+    @Test
+    void shortTermsFallBackToDatabase() {
+        assertThat(beerNameIndex.search("ip", null)).isEmpty();
+        assertThat(beerNameIndex.search("ip%", null)).isEmpty();
+    }
+
+    @Test
+    void updatesAndDeletesAreReflected() {
+        beerNameIndex.index(galaxyIpa.getId(), "Nebula Stout", BeerStyle.STOUT);
+        beerNameIndex.remove(hazyIpa.getId());
+
+        assertThat(beerNameIndex.search("ipa", null)).contains(Set.of());
+        assertThat(beerNameIndex.search("nebula", BeerStyle.STOUT)).contains(Set.of(galaxyIpa.getId()));
+    }
+
+    @Test
+    void rebuildPicksUpChangesMadeOutsideThisInstance() {
+        Beer renamed = Beer.builder().id(hazyIpa.getId()).beerName("Hazy Pils").beerStyle(BeerStyle.PILSNER).build();
+        Beer added = beer("Nebula IPA", BeerStyle.IPA);
+        given(beerRepository.findNames(any())).willReturn(names(renamed, added));
+
+        beerNameIndex.rebuild();
+
+        assertThat(beerNameIndex.search("ipa", null)).contains(Set.of(added.getId()));
+        assertThat(beerNameIndex.search("pils", null)).contains(Set.of(hazyIpa.getId()));
+    }
+
+    private static List<BeerName> names(Beer... beers) {
+        return Arrays.stream(beers).map(beer -> new BeerName(beer.getId(), beer.getBeerName(), beer.getBeerStyle())).toList();
+    }
+
+    private static Beer beer(String beerName, BeerStyle beerStyle) {
+        return Beer.builder().id(UUID.randomUUID()).beerName(beerName).beerStyle(beerStyle).build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.entities.Customer;
+import com.wchamara.spring6restmvc.mapper.BeerOrderMapperImpl;
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderLineDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerOrderRepository;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import com.wchamara.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({BeerOrderServiceImpl.class, BeerOrderMapperImpl.class, BeerDtoCache.class, InventoryLedger.class})
+// the service commits its own transaction, and the concurrency test needs real commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BeerOrderServiceImplTest {
+
+    @Autowired
+    BeerOrderService beerOrderService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerDtoCache beerDtoCache;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createQuery("delete from BeerOrderLine").executeUpdate());
+        beerOrderRepository.deleteAllInBatch();
+        beerRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void placeOrderAllocatesLinesThatAreInStock() {
+        Beer plenty = beerRepository.save(beer("Plenty", 10));
+        Beer scarce = beerRepository.save(beer("Scarce", 1));
+        Customer customer = customerRepository.save(Customer.builder().name("Chamara").build());
+
+        BeerOrderDTO placed = beerOrderService.placeOrder(BeerOrderDTO.builder()
+                .customerId(customer.getId())
+                .customerRef("ref-1")
+                .beerOrderLines(List.of(line(plenty.getId(), 4), line(scarce.getId(), 2)))
+                .build());
+
+        assertThat(placed.getId()).isNotNull();
+        assertThat(placed.getCustomerId()).isEqualTo(customer.getId());
+        assertThat(placed.getBeerOrderLines()).extracting(BeerOrderLineDTO::getQuantityAllocated).containsExactly(4, 0);
+
+        Beer allocated = beerRepository.findById(plenty.getId()).orElseThrow();
+        assertThat(allocated.getQuantityOnHand()).isEqualTo(6);
+        assertThat(allocated.getVersion()).isEqualTo(plenty.getVersion() + 1);
+        assertThat(beerRepository.findById(scarce.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(1);
+
+        assertThat(beerOrderService.getOrderById(placed.getId()).orElseThrow().getBeerOrderLines()).hasSize(2);
+    }
+
+    @Test
+    void placeOrderEvictsAllocatedBeersFromTheCache() {
+        Beer beer = beerRepository.save(beer("Cached", 10));
+        beerDtoCache.get(beer.getId(), id -> Optional.of(BeerDTO.builder().id(id).version(beer.getVersion()).quantityOnHand(10).build()));
+
+        beerOrderService.placeOrder(BeerOrderDTO.builder().beerOrderLines(List.of(line(beer.getId(), 3))).build());
+
+        assertThat(beerDtoCache.get(beer.getId(), id -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void placeOrderOnlyEvictsAllocatedBeersFromTheSecondLevelCache() {
+        Beer ordered = beerRepository.save(beer("Ordered", 10));
+        Beer other = beerRepository.save(beer("Other", 10));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        findInNewContext(ordered.getId());
+        findInNewContext(other.getId());
+
+        beerOrderService.placeOrder(BeerOrderDTO.builder().beerOrderLines(List.of(line(ordered.getId(), 3))).build());
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertThat(findInNewContext(other.getId()).getQuantityOnHand()).isEqualTo(10);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        Beer reloaded = findInNewContext(ordered.getId());
+        assertThat(reloaded.getQuantityOnHand()).isEqualTo(7);
+        assertThat(reloaded.getVersion()).isEqualTo(ordered.getVersion() + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void placeOrderRejectsUnknownBeers() {
+        Beer beer = beerRepository.save(beer("Known", 10));
+
+        assertThatThrownBy(() -> beerOrderService.placeOrder(BeerOrderDTO.builder()
+                .beerOrderLines(List.of(line(beer.getId(), 1), line(UUID.randomUUID(), 1)))
+                .build())).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(10);
+        assertThat(beerOrderRepository.count()).isZero();
+    }
+
+    @Test
+    void placeOrderRejectsQuantitiesThatWouldOverflow() {
+        Beer beer = beerRepository.save(beer("Overflow", 10));
+
+        assertThatThrownBy(() -> beerOrderService.placeOrder(BeerOrderDTO.builder()
+                .beerOrderLines(List.of(line(beer.getId(), Integer.MAX_VALUE), line(beer.getId(), Integer.MAX_VALUE)))
+                .build())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> beerOrderService.placeOrder(BeerOrderDTO.builder()
+                .beerOrderLines(List.of(line(beer.getId(), -2)))
+                .build())).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(10);
+        assertThat(beerOrderRepository.count()).isZero();
+    }
+
+    @Test
+    void allocateNeverAddsStock() {
+        Beer beer = beerRepository.save(beer("Negative", 10));
+
+        int updated = transactionTemplate.execute(status -> beerRepository.allocate(beer.getId(), -2, LocalDateTime.now()));
+
+        assertThat(updated).isZero();
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(10);
+    }
+
+    @Test
+    void concurrentOrdersNeverOverAllocate() throws Exception {
+        Beer hot = beerRepository.save(beer("Hot", 50));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<BeerOrderDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            futures.add(executor.submit(() -> beerOrderService.placeOrder(BeerOrderDTO.builder()
+                    .beerOrderLines(List.of(line(hot.getId(), 1)))
+                    .build())));
+        }
+        int allocated = 0;
+        for (Future<BeerOrderDTO> future : futures) {
+            allocated += future.get().getBeerOrderLines().get(0).getQuantityAllocated();
+        }
+        executor.shutdown();
+
+        assertThat(allocated).isEqualTo(50);
+        assertThat(beerRepository.findById(hot.getId()).orElseThrow().getQuantityOnHand()).isZero();
+        assertThat(beerOrderRepository.count()).isEqualTo(80);
+    }
+
+    private static BeerOrderLineDTO line(UUID beerId, int quantity) {
+        return BeerOrderLineDTO.builder().beerId(beerId).orderQuantity(quantity).build();
+    }
+
+    private Beer findInNewContext(UUID id) {
+        try (EntityManager lookup = entityManager.getEntityManagerFactory().createEntityManager()) {
+            return lookup.find(Beer.class, id);
+        }
+    }
+
+    private static Beer beer(String beerName, int quantityOnHand) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.LAGER)
+                .upc("123")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(quantityOnHand)
+                .build();
+    }
+}
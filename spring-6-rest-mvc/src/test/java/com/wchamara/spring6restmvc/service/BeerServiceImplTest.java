@@ -0,0 +1,140 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.BeerDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerServiceImplTest {
+
+    BeerServiceImpl beerService = new BeerServiceImpl();
+
+    @Test
+    void listAllBeersHonoursNameStyleAndPaging() {
+        beerService.saveNewBeer(beer("Mango Stout", BeerStyle.STOUT));
+        beerService.saveNewBeer(beer("Alpha Stout", BeerStyle.STOUT));
+        beerService.saveNewBeer(beer("Space Cat", BeerStyle.IPA));
+
+        Page<BeerDTO> stouts = beerService.listAllBeers(null, true, BeerStyle.STOUT, 1, 25);
+        assertThat(stouts.getTotalElements()).isEqualTo(2);
+        assertThat(stouts.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Alpha Stout", "Mango Stout");
+
+        Page<BeerDTO> cats = beerService.listAllBeers("CAT", true, null, 1, 25);
+        assertThat(cats.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy Cat", "Space Cat");
+
+        Page<BeerDTO> secondPage = beerService.listAllBeers(null, true, null, 2, 2);
+        assertThat(secondPage.getTotalElements()).isEqualTo(6);
+        assertThat(secondPage.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy Dog", "Galaxy Fish");
+    }
+
+    @Test
+    void listAllBeersHidesInventoryWithoutChangingTheStore() {
+        BeerDTO hidden = beerService.listAllBeers(null, false, null, 1, 25).getContent().get(0);
+        assertThat(hidden.getQuantityOnHand()).isNull();
+
+        assertThat(beerService.getBeerById(hidden.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(200);
+    }
+
+    @Test
+    void renamedBeerMovesInTheIndexes() {
+        BeerDTO saved = beerService.saveNewBeer(beer("Aardvark Ale", BeerStyle.ALE));
+
+        beerService.patchBeer(saved.getId(), BeerDTO.builder().beerName("Zebra Porter").beerStyle(BeerStyle.PORTER).build());
+
+        assertThat(beerService.listAllBeers(null, true, BeerStyle.ALE, 1, 25).getContent()).isEmpty();
+        assertThat(beerService.listAllBeers("aardvark", true, null, 1, 25).getContent()).isEmpty();
+        List<BeerDTO> all = beerService.listAllBeers(null, true, null, 1, 25).getContent();
+        assertThat(all).hasSize(4);
+        assertThat(all.get(3).getBeerName()).isEqualTo("Zebra Porter");
+        assertThat(all.get(3).getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void scrollBeersSeeksPastTheCursor() {
+        CursorPage<BeerDTO> first = beerService.scrollBeers(null, true, null, null, 2);
+        assertThat(first.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy Cat", "Galaxy Dog");
+
+        CursorPage<BeerDTO> second = beerService.scrollBeers(null, true, null, KeysetCursor.decode(first.getNextCursor()), 2);
+        assertThat(second.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy Fish");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void beersWithoutNameAreSkippedBySearchAndScroll() {
+        beerService.saveNewBeer(beer(null, BeerStyle.ALE));
+        beerService.saveNewBeer(beer(null, BeerStyle.ALE));
+
+        assertThat(beerService.listAllBeers("galaxy", true, null, 1, 25).getContent()).hasSize(3);
+
+        CursorPage<BeerDTO> first = beerService.scrollBeers(null, true, null, null, 2);
+        assertThat(first.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy Cat", "Galaxy Dog");
+        assertThat(first.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void missingBeersAreNotUpdatedOrPatched() {
+        assertThat(beerService.updateBeer(UUID.randomUUID(), beer("Ghost", BeerStyle.ALE))).isEmpty();
+        assertThat(beerService.patchBeer(UUID.randomUUID(), beer("Ghost", BeerStyle.ALE))).isEmpty();
+        assertThat(beerService.listAllBeers(null, true, null, 1, 25).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void returnedBeersAreCopies() {
+        BeerDTO beerDTO = beerService.listAllBeers(null, true, null, 1, 25).getContent().get(0);
+        beerDTO.setBeerName("Mutated");
+
+        assertThat(beerService.getBeerById(beerDTO.getId()).orElseThrow().getBeerName()).isEqualTo("Galaxy Cat");
+    }
+
+    @Test
+    void concurrentWritesKeepIndexesConsistent() throws Exception {
+        BeerDTO saved = beerService.saveNewBeer(beer("Contended", BeerStyle.ALE));
+        BeerStyle[] styles = {BeerStyle.ALE, BeerStyle.IPA, BeerStyle.STOUT};
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                beerService.saveNewBeer(beer("Beer " + n, styles[n % styles.length]));
+                beerService.patchBeer(saved.getId(), BeerDTO.builder()
+                        .beerName("Contended " + n).beerStyle(styles[n % styles.length]).build());
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(beerService.listAllBeers("beer", true, null, 1, 25).getTotalElements()).isEqualTo(400);
+        assertThat(beerService.listAllBeers("contended", true, null, 1, 25).getTotalElements()).isEqualTo(1);
+        long byStyle = 0;
+        for (BeerStyle style : styles) {
+            byStyle += beerService.listAllBeers("contended", true, style, 1, 25).getTotalElements();
+        }
+        assertThat(byStyle).isEqualTo(1);
+        assertThat(beerService.getBeerVersion(saved.getId())).contains(401);
+    }
+
+    private static BeerDTO beer(String beerName, BeerStyle beerStyle) {
+        return BeerDTO.builder()
+                .beerName(beerName)
+                .beerStyle(beerStyle)
+                .upc("123")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(200)
+                .build();
+    }
+}
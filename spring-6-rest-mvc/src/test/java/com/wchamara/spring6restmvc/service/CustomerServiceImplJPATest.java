@@ -0,0 +1,105 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Customer;
+import com.wchamara.spring6restmvc.mapper.CustomerMapperImpl;
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import com.wchamara.spring6restmvc.repositories.CustomerRepository;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CustomerServiceImplJPA.class, CustomerMapperImpl.class})
+class CustomerServiceImplJPATest {
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.saveAll(List.of(
+                Customer.builder().name("Dave").build(),
+                Customer.builder().name("Alice").build(),
+                Customer.builder().name("Carol").build(),
+                Customer.builder().name("Bob").build(),
+                Customer.builder().name("Eve").build()));
+        customerRepository.flush();
+    }
+
+    @Test
+    void listCustomersReturnsBoundedPagesSortedByName() {
+        Page<CustomerDTO> page = customerService.listCustomers(2, 2);
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(CustomerDTO::getName).containsExactly("Carol", "Dave");
+        assertThat(customerService.listCustomers(1, 100_000).getSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void scrollCustomersWalksEveryCustomerOnce() {
+        CursorPage<CustomerDTO> first = customerService.scrollCustomers(null, 3);
+        CursorPage<CustomerDTO> second = customerService.scrollCustomers(KeysetCursor.decode(first.getNextCursor()), 3);
+
+        assertThat(first.getContent()).extracting(CustomerDTO::getName).containsExactly("Alice", "Bob", "Carol");
+        assertThat(second.getContent()).extracting(CustomerDTO::getName).containsExactly("Dave", "Eve");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void savedCustomerCanBeReadUpdatedAndDeleted() {
+        CustomerDTO saved = customerService.saveNewCustomer(CustomerDTO.builder().name("Frank").build());
+        customerRepository.flush();
+
+        customerService.patchCustomerById(saved.getId(), CustomerDTO.builder().name("Francis").build());
+        customerRepository.flush();
+        assertThat(customerService.getCustomerById(saved.getId())).get()
+                .extracting(CustomerDTO::getName).isEqualTo("Francis");
+
+        customerService.deleteCustomerById(saved.getId());
+        assertThat(customerService.getCustomerById(saved.getId())).isEmpty();
+        assertThat(customerService.getCustomerById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void saveNewCustomerIgnoresClientIdAndVersion() {
+        Customer existing = customerRepository.findAll().get(0);
+
+        CustomerDTO saved = customerService.saveNewCustomer(CustomerDTO.builder()
+                .id(existing.getId()).version(existing.getVersion()).name("Grace").build());
+        customerRepository.flush();
+
+        assertThat(saved.getId()).isNotEqualTo(existing.getId());
+        assertThat(customerService.getCustomerById(existing.getId())).get()
+                .extracting(CustomerDTO::getName).isEqualTo(existing.getName());
+    }
+
+    @Test
+    void updateAndPatchOfUnknownCustomerAreEmpty() {
+        assertThat(customerService.updateCustomerById(UUID.randomUUID(), CustomerDTO.builder().name("Ghost").build())).isEmpty();
+        assertThat(customerService.patchCustomerById(UUID.randomUUID(), CustomerDTO.builder().name("Ghost").build())).isEmpty();
+    }
+
+    @Test
+    void customerWithoutNameIsRejected() {
+        Customer customer = customerRepository.findAll().get(0);
+
+        customerService.updateCustomerById(customer.getId(), CustomerDTO.builder().build());
+
+        assertThatThrownBy(() -> customerRepository.flush()).isInstanceOf(ConstraintViolationException.class);
+    }
+}
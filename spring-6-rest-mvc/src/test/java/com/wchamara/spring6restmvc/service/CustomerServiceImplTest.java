@@ -0,0 +1,114 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.model.CursorPage;
+import com.wchamara.spring6restmvc.model.CustomerDTO;
+import com.wchamara.spring6restmvc.model.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerServiceImplTest {
+
+    CustomerServiceImpl customerService = new CustomerServiceImpl();
+
+    @Test
+    void listCustomersPagesByName() {
+        customerService.saveNewCustomer(CustomerDTO.builder().name("Alice").build());
+        customerService.saveNewCustomer(CustomerDTO.builder().name("Zoe").build());
+
+        Page<CustomerDTO> first = customerService.listCustomers(1, 2);
+        Page<CustomerDTO> last = customerService.listCustomers(3, 2);
+
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.getContent()).extracting(CustomerDTO::getName).containsExactly("Alice", "Customer 1");
+        assertThat(last.getContent()).extracting(CustomerDTO::getName).containsExactly("Zoe");
+    }
+
+    @Test
+    void writesAreVisibleToTheNextListing() {
+        CustomerDTO customer = customerService.listCustomers(1, 25).getContent().get(0);
+
+        customerService.updateCustomerById(customer.getId(), CustomerDTO.builder().name("Zed").build());
+
+        List<CustomerDTO> customers = customerService.listCustomers(1, 25).getContent();
+        assertThat(customers).extracting(CustomerDTO::getName).containsExactly("Customer 2", "Customer 3", "Zed");
+        assertThat(customers.get(2).getVersion()).isEqualTo(2);
+
+        customerService.deleteCustomerById(customer.getId());
+        assertThat(customerService.listCustomers(1, 25).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void scrollCustomersSeeksPastTheCursor() {
+        CursorPage<CustomerDTO> first = customerService.scrollCustomers(null, 2);
+        assertThat(first.getContent()).extracting(CustomerDTO::getName).containsExactly("Customer 1", "Customer 2");
+
+        CursorPage<CustomerDTO> second = customerService.scrollCustomers(KeysetCursor.decode(first.getNextCursor()), 2);
+        assertThat(second.getContent()).extracting(CustomerDTO::getName).containsExactly("Customer 3");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void returnedCustomersDoNotShareStateWithTheStore() {
+        CustomerDTO customer = customerService.listCustomers(1, 25).getContent().get(0);
+        customer.setName("Mutated");
+
+        assertThat(customerService.getCustomerById(customer.getId()).orElseThrow().getName()).isEqualTo("Customer 1");
+    }
+
+    @Test
+    void missingCustomersAreNotCreatedByUpdateOrPatch() {
+        assertThat(customerService.updateCustomerById(UUID.randomUUID(), CustomerDTO.builder().name("Ghost").build())).isEmpty();
+        assertThat(customerService.patchCustomerById(UUID.randomUUID(), CustomerDTO.builder().name("Ghost").build())).isEmpty();
+
+        assertThat(customerService.listCustomers(1, 25).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void customersWithoutNameAreRejected() {
+        CustomerDTO customer = customerService.listCustomers(1, 25).getContent().get(0);
+
+        assertThatThrownBy(() -> customerService.saveNewCustomer(CustomerDTO.builder().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> customerService.updateCustomerById(customer.getId(), CustomerDTO.builder().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(customerService.getCustomerById(customer.getId()).orElseThrow().getName()).isEqualTo("Customer 1");
+    }
+
+    @Test
+    void concurrentWritesAndListingsStayConsistent() throws Exception {
+        CustomerDTO contended = customerService.listCustomers(1, 25).getContent().get(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                customerService.saveNewCustomer(CustomerDTO.builder().name("Customer x" + n).build());
+                customerService.patchCustomerById(contended.getId(), CustomerDTO.builder().name("Renamed " + n).build());
+
+                Page<CustomerDTO> page = customerService.listCustomers(1, 1000);
+                assertThat(page.getContent()).hasSize((int) page.getTotalElements());
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        List<CustomerDTO> customers = customerService.listCustomers(1, 1000).getContent();
+        assertThat(customers).hasSize(403);
+        assertThat(customers).filteredOn(customer -> customer.getName().startsWith("Renamed")).hasSize(1);
+        assertThat(customerService.getCustomerVersion(contended.getId())).contains(401);
+    }
+}
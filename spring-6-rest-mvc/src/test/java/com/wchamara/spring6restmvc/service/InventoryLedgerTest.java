@@ -0,0 +1,233 @@
+package com.wchamara.spring6restmvc.service;
+
+import com.wchamara.spring6restmvc.entities.Beer;
+import com.wchamara.spring6restmvc.mapper.BeerOrderMapperImpl;
+import com.wchamara.spring6restmvc.model.BeerOrderDTO;
+import com.wchamara.spring6restmvc.model.BeerOrderLineDTO;
+import com.wchamara.spring6restmvc.model.BeerStyle;
+import com.wchamara.spring6restmvc.repositories.BeerOrderRepository;
+import com.wchamara.spring6restmvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// a long interval, so only the flushes the tests make run
+@DataJpaTest(properties = {"beer.inventory.ledger.enabled=true", "beer.inventory.flush-batch-size=2",
+        "beer.inventory.flush-interval=1h"})
+@Import({InventoryLedger.class, BeerDtoCache.class, BeerOrderServiceImpl.class, BeerOrderMapperImpl.class})
+// orders and flushes commit their own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryLedgerTest {
+
+    @Autowired
+    InventoryLedger inventoryLedger;
+
+    @Autowired
+    BeerOrderService beerOrderService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    BeerDtoCache beerDtoCache;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        // the ledger outlives the test, so leave nothing pending for the next one
+        inventoryLedger.flush();
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createQuery("delete from BeerOrderLine").executeUpdate());
+        beerOrderRepository.deleteAllInBatch();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void reserveNeverGoesBelowZeroUnderContention() throws Exception {
+        Beer hot = beerRepository.save(beer("Hot", 100));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit(() -> inventoryLedger.reserve(hot.getId(), 1)));
+        }
+        int reserved = 0;
+        for (Future<Boolean> future : futures) {
+            reserved += future.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(reserved).isEqualTo(100);
+        assertThat(inventoryLedger.available(hot.getId())).isZero();
+    }
+
+    @Test
+    void flushTakesThePlacedOrdersInChunks() {
+        List<Beer> beers = beerRepository.saveAll(List.of(beer("One", 10), beer("Two", 10), beer("Three", 10)));
+        beers.forEach(beer -> order(beer, 4));
+        order(beers.get(0), 1);
+
+        assertThat(inventoryLedger.flush()).isEqualTo(3);
+        assertThat(inventoryLedger.flush()).isZero();
+
+        assertThat(beerRepository.findById(beers.get(0).getId()).orElseThrow().getQuantityOnHand()).isEqualTo(5);
+        Beer flushed = beerRepository.findById(beers.get(1).getId()).orElseThrow();
+        assertThat(flushed.getQuantityOnHand()).isEqualTo(6);
+        assertThat(flushed.getVersion()).isEqualTo(beers.get(1).getVersion() + 1);
+        assertThat(inventoryLedger.available(beers.get(1).getId())).isEqualTo(6);
+        assertThat(beerOrderRepository.findBeerIdsWithPendingStock()).isEmpty();
+    }
+
+    @Test
+    void reservationsWithoutACommittedOrderAreNotWritten() {
+        Beer beer = beerRepository.save(beer("Held", 10));
+        inventoryLedger.reserve(beer.getId(), 4);
+
+        assertThat(inventoryLedger.flush()).isZero();
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(10);
+        assertThat(inventoryLedger.available(beer.getId())).isEqualTo(6);
+        inventoryLedger.release(beer.getId(), 4);
+    }
+
+    @Test
+    void flushPicksUpQuantitiesWrittenOutsideTheLedger() {
+        Beer beer = beerRepository.save(beer("Restocked", 10));
+        order(beer, 3);
+
+        restock(beer, 50);
+        inventoryLedger.flush();
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(47);
+        assertThat(inventoryLedger.available(beer.getId())).isEqualTo(47);
+    }
+
+    @Test
+    void flushPicksUpRestocksOfBeersWithNothingPending() {
+        Beer beer = beerRepository.save(beer("Sold out", 2));
+        order(beer, 2);
+        inventoryLedger.flush();
+        assertThat(inventoryLedger.available(beer.getId())).isZero();
+
+        restock(beer, 30);
+        assertThat(inventoryLedger.flush()).isZero();
+
+        assertThat(inventoryLedger.available(beer.getId())).isEqualTo(30);
+    }
+
+    @Test
+    void reconcileKeepsPendingChanges() {
+        Beer beer = beerRepository.save(beer("Pending", 10));
+        order(beer, 4);
+        inventoryLedger.reserve(beer.getId(), 1);
+
+        restock(beer, 20);
+        inventoryLedger.reconcile();
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(16);
+        assertThat(inventoryLedger.available(beer.getId())).isEqualTo(15);
+        inventoryLedger.release(beer.getId(), 1);
+    }
+
+    @Test
+    void reconcileReplaysOrdersThatWereNeverFlushed() {
+        Beer beer = beerRepository.save(beer("Crashed", 10));
+        order(beer, 4);
+
+        // a new instance started after the first one stopped without flushing
+        InventoryLedger restarted = new InventoryLedger(beerRepository, beerOrderRepository, transactionTemplate,
+                entityManager.getEntityManagerFactory(), beerDtoCache, true, Duration.ofSeconds(1), 2);
+        assertThat(restarted.available(beer.getId())).isEqualTo(6);
+
+        assertThat(restarted.flush()).isEqualTo(1);
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(6);
+        assertThat(restarted.available(beer.getId())).isEqualTo(6);
+        assertThat(restarted.reserve(beer.getId(), 7)).isFalse();
+    }
+
+    @Test
+    void reconcileReplaysOrdersForBeersNotYetLoaded() {
+        Beer beer = beerRepository.save(beer("Unloaded", 10));
+        order(beer, 3);
+
+        InventoryLedger restarted = new InventoryLedger(beerRepository, beerOrderRepository, transactionTemplate,
+                entityManager.getEntityManagerFactory(), beerDtoCache, true, Duration.ofSeconds(1), 2);
+        restarted.reconcile();
+
+        assertThat(beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(7);
+        assertThat(restarted.available(beer.getId())).isEqualTo(7);
+    }
+
+    @Test
+    void deletedBeersAreDroppedOnFlush() {
+        Beer beer = beerRepository.save(beer("Deleted", 10));
+        inventoryLedger.reserve(beer.getId(), 1);
+        beerRepository.deleteById(beer.getId());
+
+        assertThat(inventoryLedger.flush()).isZero();
+        assertThatThrownBy(() -> inventoryLedger.available(beer.getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownBeerCannotBeReserved() {
+        assertThatThrownBy(() -> inventoryLedger.reserve(UUID.randomUUID(), 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nonPositiveQuantitiesAreRejected() {
+        Beer beer = beerRepository.save(beer("Negative", 10));
+
+        assertThatThrownBy(() -> inventoryLedger.reserve(beer.getId(), -2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> inventoryLedger.release(beer.getId(), 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(inventoryLedger.available(beer.getId())).isEqualTo(10);
+    }
+
+    private void order(Beer beer, int quantity) {
+        beerOrderService.placeOrder(BeerOrderDTO.builder()
+                .beerOrderLines(List.of(BeerOrderLineDTO.builder().beerId(beer.getId()).orderQuantity(quantity).build()))
+                .build());
+    }
+
+    private void restock(Beer beer, int quantityOnHand) {
+        Beer restocked = beerRepository.findById(beer.getId()).orElseThrow();
+        restocked.setQuantityOnHand(quantityOnHand);
+        beerRepository.save(restocked);
+    }
+
+    private static Beer beer(String beerName, int quantityOnHand) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.LAGER)
+                .upc("123")
+                .price(BigDecimal.TEN)
+                .quantityOnHand(quantityOnHand)
+                .build();
+    }
+}